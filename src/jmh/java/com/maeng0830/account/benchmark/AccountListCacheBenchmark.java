@@ -0,0 +1,69 @@
+package com.maeng0830.account.benchmark;
+
+import com.maeng0830.account.dto.AccountDto;
+import com.maeng0830.account.service.AccountService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// 사용자의 계좌 목록 조회(GET /account?user_id=) 처리량 - 계좌 목록 캐시(accountsByUser)를 사용하는 경우와 끈 경우 비교
+// cacheType=none이면 spring.cache.type=none으로 캐시 없이(NoOpCacheManager) 매번 DB를 조회한다.
+// 사용자 USERS명에게 계좌를 최대 개수(10개)씩 만들어두고 임의의 사용자를 조회한다. 모든 사용자가 캐시 크기 안에 들어간다.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class AccountListCacheBenchmark {
+    private static final long USERS = 1_000L;
+    private static final long ACCOUNTS_PER_USER = 10L;
+    // 애플리케이션이 발급하는 id/계좌 번호와 겹치지 않도록 별도의 범위를 사용한다.
+    private static final long FIRST_ID = 1_000_000L;
+    private static final long FIRST_ACCOUNT_NUMBER = 9_000_000_000L;
+
+    @Param({"caffeine", "none"})
+    public String cacheType;
+
+    private ConfigurableApplicationContext context;
+    private AccountService accountService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("--spring.cache.type=" + cacheType);
+        accountService = context.getBean(AccountService.class);
+
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        jdbcTemplate.update("insert into account_user(id, name, created_at, updated_at) " +
+                        "select x, concat('user', x), now(), now() from system_range(?, ?)",
+                FIRST_ID, FIRST_ID + USERS - 1);
+        // i번째 계좌의 소유자는 (i / ACCOUNTS_PER_USER)번째 사용자다.
+        jdbcTemplate.update("insert into account(id, account_user_id, account_number, " +
+                        "account_status, balance, initial_balance, version, registered_at) " +
+                        "select x, ? + (x - ?) / ?, cast(? + x - ? as varchar), " +
+                        "'IN_USE', 10000, 10000, 0, now() from system_range(?, ?)",
+                FIRST_ID, FIRST_ID, ACCOUNTS_PER_USER,
+                FIRST_ACCOUNT_NUMBER, FIRST_ID,
+                FIRST_ID, FIRST_ID + USERS * ACCOUNTS_PER_USER - 1);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<AccountDto> getAccountsByUserId() {
+        return accountService.getAccountsByUserId(FIRST_ID + ThreadLocalRandom.current().nextLong(USERS));
+    }
+}
@@ -0,0 +1,53 @@
+package com.maeng0830.account.benchmark;
+
+import com.maeng0830.account.dto.AccountDto;
+import com.maeng0830.account.service.AccountService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.concurrent.TimeUnit;
+
+// 계좌 생성 처리량
+// 사용자 당 계좌는 최대 10개이기 때문에 사용자를 미리 만들어두고 10개마다 다음 사용자로 넘어간다.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class AccountServiceBenchmark {
+    private static final long FIRST_USER_ID = 1_000_000L;
+    private static final long USER_COUNT = 200_000L;
+    private static final int ACCOUNTS_PER_USER = 10;
+
+    private ConfigurableApplicationContext context;
+    private AccountService accountService;
+    private long createdAccounts;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start();
+        accountService = context.getBean(AccountService.class);
+        context.getBean(JdbcTemplate.class).update(
+                "insert into account_user(id, name, created_at, updated_at) " +
+                        "select x, 'benchmark', now(), now() from system_range(?, ?)",
+                FIRST_USER_ID, FIRST_USER_ID + USER_COUNT - 1);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public AccountDto createAccount() {
+        long userId = FIRST_USER_ID + createdAccounts++ / ACCOUNTS_PER_USER;
+        return accountService.createAccount(userId, 10_000L);
+    }
+}
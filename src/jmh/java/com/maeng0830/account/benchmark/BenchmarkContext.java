@@ -0,0 +1,35 @@
+package com.maeng0830.account.benchmark;
+
+import com.maeng0830.account.AccountApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.Arrays;
+
+// 벤치마크용 애플리케이션 컨텍스트
+// 웹 서버 없이 서비스 빈만 띄우고, 측정에 섞이지 않도록 SQL 로그와 정산 스케줄은 끈다.
+// 임베디드 Redis는 실행 중인 애플리케이션과 겹치지 않는 포트를 사용한다.
+final class BenchmarkContext {
+    private static final String[] DEFAULT_ARGS = {
+            "--spring.datasource.url=jdbc:h2:mem:benchmark",
+            "--spring.redis.port=16379",
+            "--spring.jpa.properties.hibernate.show_sql=false",
+            "--spring.h2.console.enabled=false",
+            "--account.reconciliation.cron=-",
+            "--logging.level.root=WARN"
+    };
+
+    private BenchmarkContext() {
+    }
+
+    // application.yml보다 우선하도록 커맨드 라인 인자(--key=value)로 넘긴다.
+    static ConfigurableApplicationContext start(String... args) {
+        String[] allArgs = Arrays.copyOf(DEFAULT_ARGS, DEFAULT_ARGS.length + args.length);
+        System.arraycopy(args, 0, allArgs, DEFAULT_ARGS.length, args.length);
+        return new SpringApplicationBuilder(AccountApplication.class)
+                .web(WebApplicationType.NONE)
+                .logStartupInfo(false)
+                .run(allArgs);
+    }
+}
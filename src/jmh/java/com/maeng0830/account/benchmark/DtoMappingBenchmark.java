@@ -0,0 +1,62 @@
+package com.maeng0830.account.benchmark;
+
+import com.maeng0830.account.domain.Account;
+import com.maeng0830.account.domain.Transaction;
+import com.maeng0830.account.dto.TransactionDto;
+import com.maeng0830.account.dto.UseBalance;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+import static com.maeng0830.account.type.TransactionResultType.S;
+import static com.maeng0830.account.type.TransactionType.USE;
+
+// 엔티티 -> DTO -> 응답 변환 비용
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class DtoMappingBenchmark {
+    private Transaction transaction;
+    private TransactionDto transactionDto;
+
+    @Setup
+    public void setUp() {
+        transaction = Transaction.builder()
+                .id(1L)
+                .transactionType(USE)
+                .transactionResultType(S)
+                .account(Account.builder()
+                        .id(1L)
+                        .accountNumber("1000000000")
+                        .balance(9_000L)
+                        .build())
+                .amount(1_000L)
+                .balanceSnapshot(9_000L)
+                .transactionId("08cea60857000000")
+                .transactedAt(LocalDateTime.now())
+                .build();
+        transactionDto = TransactionDto.fromEntity(transaction);
+    }
+
+    @Benchmark
+    public TransactionDto transactionDtoFromEntity() {
+        return TransactionDto.fromEntity(transaction);
+    }
+
+    @Benchmark
+    public UseBalance.Response useBalanceResponseFrom() {
+        return UseBalance.Response.from(transactionDto);
+    }
+
+    @Benchmark
+    public UseBalance.Response entityToResponse() {
+        return UseBalance.Response.from(TransactionDto.fromEntity(transaction));
+    }
+}
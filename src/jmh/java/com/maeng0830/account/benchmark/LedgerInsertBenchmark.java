@@ -0,0 +1,80 @@
+package com.maeng0830.account.benchmark;
+
+import com.maeng0830.account.dto.TransactionDto;
+import com.maeng0830.account.dto.UseBalance;
+import com.maeng0830.account.service.AccountService;
+import com.maeng0830.account.service.TransactionService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// H2 거래 기록 insert 처리량(inserts/sec)
+// JDBC batch 크기(hibernate.jdbc.batch_size) 별로 컨텍스트를 따로 띄우고,
+// 요청마다 트랜잭션을 나누는 경우와 useBalanceBatch로 한 번에 flush하는 경우를 비교한다.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class LedgerInsertBenchmark {
+    private static final Long USER_ID = 1L;
+    private static final Long INITIAL_BALANCE = Long.MAX_VALUE / 2;
+    private static final Long AMOUNT = 100L;
+    private static final int INSERTS = 200;
+
+    @Param({"1", "50"})
+    public int batchSize;
+
+    private ConfigurableApplicationContext context;
+    private TransactionService transactionService;
+    private String accountNumber;
+    private List<UseBalance.Request> requests;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("--spring.jpa.properties.hibernate.jdbc.batch_size=" + batchSize);
+        transactionService = context.getBean(TransactionService.class);
+        accountNumber = context.getBean(AccountService.class)
+                .createAccount(USER_ID, INITIAL_BALANCE)
+                .getAccountNumber();
+
+        requests = new ArrayList<>(INSERTS);
+        for (int i = 0; i < INSERTS; i++) {
+            requests.add(new UseBalance.Request(USER_ID, accountNumber, AMOUNT));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    // 요청마다 트랜잭션 하나, insert 하나
+    @Benchmark
+    @OperationsPerInvocation(INSERTS)
+    public TransactionDto useBalanceOneByOne() {
+        TransactionDto last = null;
+        for (int i = 0; i < INSERTS; i++) {
+            last = transactionService.useBalance(USER_ID, accountNumber, AMOUNT);
+        }
+        return last;
+    }
+
+    // 트랜잭션 하나에서 INSERTS개의 거래 기록을 한 번에 flush
+    @Benchmark
+    @OperationsPerInvocation(INSERTS)
+    public List<TransactionDto> useBalanceBatch() {
+        return transactionService.useBalanceBatch(requests);
+    }
+}
@@ -0,0 +1,62 @@
+package com.maeng0830.account.benchmark;
+
+import com.maeng0830.account.service.AccountService;
+import com.maeng0830.account.service.LockService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+// 계좌 락 구현체 별 획득/해제 비용(JVM 내부 락, 임베디드 Redis, H2 행 잠금)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class LockServiceBenchmark {
+    private static final long WAIT_TIME_MILLIS = 5_000L;
+
+    @Param({"LOCAL", "DISTRIBUTED", "HYBRID", "DATABASE"})
+    public String lockMode;
+
+    private ConfigurableApplicationContext context;
+    private LockService lockService;
+    private String accountNumber;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("--account.lock.mode=" + lockMode);
+        lockService = context.getBean(LockService.class);
+        // DATABASE 모드는 잠글 계좌 행이 있어야 한다.
+        accountNumber = context.getBean(AccountService.class)
+                .createAccount(1L, 0L)
+                .getAccountNumber();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Long lockAndUnlock() {
+        Long fencingToken = lockService.lock(accountNumber, WAIT_TIME_MILLIS, -1L);
+        lockService.unlock(accountNumber);
+        return fencingToken;
+    }
+
+    // 같은 계좌에 4개 스레드가 몰리는 경우
+    @Benchmark
+    @Threads(4)
+    public Long lockAndUnlockContended() {
+        return lockAndUnlock();
+    }
+}
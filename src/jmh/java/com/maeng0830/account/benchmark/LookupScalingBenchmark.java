@@ -0,0 +1,98 @@
+package com.maeng0830.account.benchmark;
+
+import com.maeng0830.account.domain.Account;
+import com.maeng0830.account.domain.Transaction;
+import com.maeng0830.account.domain.TransactionIdCodec;
+import com.maeng0830.account.repository.AccountRepository;
+import com.maeng0830.account.repository.TransactionRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// 계좌 번호/거래 id 조회 시간이 테이블 크기와 상관없이 일정한지 확인한다(uk_account_account_number, uk_transaction_transaction_id).
+// 거래 transactions건, 계좌 transactions / 10개(최대 거래 1,000,000건, 계좌 100,000개)를 넣어두고 임의의 한 건을 조회한다.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g") // 거래 1,000,000건을 H2 메모리에 올린다.
+public class LookupScalingBenchmark {
+    private static final long USERS = 1_000L;
+    private static final long TRANSACTIONS_PER_ACCOUNT = 10L;
+    // 애플리케이션이 발급하는 id/계좌 번호와 겹치지 않도록 별도의 범위를 사용한다.
+    private static final long FIRST_ID = 1_000_000L;
+    private static final long FIRST_ACCOUNT_NUMBER = 9_000_000_000L;
+    private static final long INSERT_CHUNK_SIZE = 20_000L;
+
+    @Param({"10000", "100000", "1000000"})
+    public long transactions;
+
+    private ConfigurableApplicationContext context;
+    private AccountRepository accountRepository;
+    private TransactionRepository transactionRepository;
+    private long accounts;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start();
+        accountRepository = context.getBean(AccountRepository.class);
+        transactionRepository = context.getBean(TransactionRepository.class);
+        accounts = transactions / TRANSACTIONS_PER_ACCOUNT;
+
+        // 한 문장으로 넣으면 H2 메모리가 부족해서 나눠서 넣는다.
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        insertInChunks(jdbcTemplate, USERS,
+                "insert into account_user(id, name, created_at, updated_at) " +
+                        "select x, concat('user', x), now(), now() from system_range(?, ?)");
+        insertInChunks(jdbcTemplate, accounts,
+                "insert into account(id, account_user_id, account_number, " +
+                        "account_status, balance, initial_balance, version, registered_at) " +
+                        "select x, " + FIRST_ID + " + mod(x, " + USERS + "), " +
+                        "cast(" + (FIRST_ACCOUNT_NUMBER - FIRST_ID) + " + x as varchar), " +
+                        "'IN_USE', 0, 0, 0, now() from system_range(?, ?)");
+        // 거래 id는 발급 순서와 같이 증가하는 값을 사용하고, 계좌에 고르게 나눈다.
+        insertInChunks(jdbcTemplate, transactions,
+                "insert into transaction(id, transaction_type, transaction_result_type, " +
+                        "account_id, amount, balance_snapshot, transaction_id, transacted_at, " +
+                        "created_at, updated_at) " +
+                        "select x, 'USE', 'S', " + FIRST_ID + " + mod(x, " + accounts + "), " +
+                        "100, 0, x, now(), now(), now() from system_range(?, ?)");
+    }
+
+    private static void insertInChunks(JdbcTemplate jdbcTemplate, long rows, String sql) {
+        for (long from = 0; from < rows; from += INSERT_CHUNK_SIZE) {
+            jdbcTemplate.update(sql, FIRST_ID + from,
+                    FIRST_ID + Math.min(from + INSERT_CHUNK_SIZE, rows) - 1);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Optional<Account> findByAccountNumber() {
+        long accountIndex = ThreadLocalRandom.current().nextLong(accounts);
+        return accountRepository.findByAccountNumber(String.valueOf(FIRST_ACCOUNT_NUMBER + accountIndex));
+    }
+
+    @Benchmark
+    public Optional<Transaction> findByTransactionId() {
+        long transactionIndex = ThreadLocalRandom.current().nextLong(transactions);
+        return transactionRepository.findByTransactionId(TransactionIdCodec.encode(FIRST_ID + transactionIndex));
+    }
+}
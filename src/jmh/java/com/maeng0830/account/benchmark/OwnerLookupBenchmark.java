@@ -0,0 +1,81 @@
+package com.maeng0830.account.benchmark;
+
+import com.maeng0830.account.domain.Account;
+import com.maeng0830.account.domain.AccountUser;
+import com.maeng0830.account.exception.AccountException;
+import com.maeng0830.account.repository.AccountRepository;
+import com.maeng0830.account.repository.AccountUserRepository;
+import com.maeng0830.account.service.AccountService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+import static com.maeng0830.account.type.ErrorCode.ACCOUNT_NOT_FOUND;
+import static com.maeng0830.account.type.ErrorCode.USER_ACCOUNT_UN_MATCH;
+import static com.maeng0830.account.type.ErrorCode.USER_NOT_FOUND;
+
+// 잔액 사용 시 사용자의 계좌 조회
+// 사용자와 계좌를 따로 조회해서 소유자를 비교하는 경우와, 계좌 번호와 소유자 id로 한 번에 조회하는 경우를 비교한다.
+// 잔액 사용과 같이 조회 한 번을 트랜잭션 하나에서 실행한다.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class OwnerLookupBenchmark {
+    private static final Long USER_ID = 1L;
+
+    private ConfigurableApplicationContext context;
+    private AccountRepository accountRepository;
+    private AccountUserRepository accountUserRepository;
+    private TransactionTemplate transactionTemplate;
+    private String accountNumber;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start();
+        accountRepository = context.getBean(AccountRepository.class);
+        accountUserRepository = context.getBean(AccountUserRepository.class);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+        accountNumber = context.getBean(AccountService.class)
+                .createAccount(USER_ID, 10_000L)
+                .getAccountNumber();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    // 사용자 조회 + 계좌 조회 후 소유자 id 비교(SELECT 두 번)
+    @Benchmark
+    public Account userThenAccount() {
+        return transactionTemplate.execute(status -> {
+            AccountUser user = accountUserRepository.findById(USER_ID)
+                    .orElseThrow(() -> new AccountException(USER_NOT_FOUND));
+            Account account = accountRepository.findByAccountNumber(accountNumber)
+                    .orElseThrow(() -> new AccountException(ACCOUNT_NOT_FOUND));
+            if (!Objects.equals(user.getId(), account.getAccountUser().getId())) {
+                throw new AccountException(USER_ACCOUNT_UN_MATCH);
+            }
+            return account;
+        });
+    }
+
+    // 계좌 번호와 소유자 id로 한 번에 조회(SELECT 한 번)
+    @Benchmark
+    public Account accountByOwner() {
+        return transactionTemplate.execute(status ->
+                accountRepository.findByAccountNumberAndAccountUser_Id(accountNumber, USER_ID)
+                        .orElseThrow(() -> new AccountException(USER_ACCOUNT_UN_MATCH)));
+    }
+}
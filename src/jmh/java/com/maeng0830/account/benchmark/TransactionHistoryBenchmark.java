@@ -0,0 +1,97 @@
+package com.maeng0830.account.benchmark;
+
+import com.maeng0830.account.dto.TransactionHistory;
+import com.maeng0830.account.repository.AccountRepository;
+import com.maeng0830.account.service.AccountService;
+import com.maeng0830.account.service.TransactionService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+// 거래 내역 keyset 페이지 조회 시간이 조회 위치(depth)와 상관없이 일정한지 확인한다.
+// 계좌 하나에 거래 100,000건을 1초 간격으로 넣어두고, depth번째 거래 다음부터 한 페이지를 조회한다.
+// boundedLastPage는 조회 기간의 시작(from)을 페이지 중간에 두어, 기간이 있는 조회의 마지막(짧은) 페이지를 조회한다.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TransactionHistoryBenchmark {
+    private static final long TRANSACTION_COUNT = 100_000L;
+    private static final long INSERT_CHUNK_SIZE = 20_000L;
+    private static final int PAGE_SIZE = 20;
+    // H2가 같은 쿼리 결과를 재사용하지 않도록 커서를 조금씩 바꾼다.
+    private static final int CURSOR_JITTER = 64;
+    private static final LocalDateTime FIRST_TRANSACTED_AT = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    @Param({"0", "1000", "50000", "99000"})
+    public long depth;
+
+    private ConfigurableApplicationContext context;
+    private TransactionService transactionService;
+    private String accountNumber;
+    private long invocations;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start();
+        transactionService = context.getBean(TransactionService.class);
+        accountNumber = context.getBean(AccountService.class)
+                .createAccount(1L, 0L)
+                .getAccountNumber();
+        Long accountId = context.getBean(AccountRepository.class)
+                .findIdByAccountNumber(accountNumber)
+                .orElseThrow(IllegalStateException::new);
+
+        // 한 문장으로 넣으면 H2 메모리가 부족해서 나눠서 넣는다.
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        for (long from = 1; from <= TRANSACTION_COUNT; from += INSERT_CHUNK_SIZE) {
+            jdbcTemplate.update("insert into transaction(id, transaction_type, transaction_result_type, " +
+                            "account_id, amount, balance_snapshot, transaction_id, transacted_at, " +
+                            "created_at, updated_at) " +
+                            "select x, 'USE', 'S', ?, 100, 0, x, dateadd('SECOND', x, ?), now(), now() " +
+                            "from system_range(?, ?)",
+                    accountId, FIRST_TRANSACTED_AT, from,
+                    Math.min(from + INSERT_CHUNK_SIZE - 1, TRANSACTION_COUNT));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public TransactionHistory.Page page() {
+        long skipped = Math.min(depth + invocations++ % CURSOR_JITTER, TRANSACTION_COUNT - 1);
+        return transactionService.getTransactionHistory(
+                accountNumber, cursorAfter(skipped), null, null, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public TransactionHistory.Page boundedLastPage() {
+        long skipped = Math.min(depth + invocations++ % CURSOR_JITTER, TRANSACTION_COUNT - PAGE_SIZE);
+        LocalDateTime from = FIRST_TRANSACTED_AT.plusSeconds(TRANSACTION_COUNT - skipped - PAGE_SIZE / 2 + 1);
+        return transactionService.getTransactionHistory(
+                accountNumber, cursorAfter(skipped), from, null, PAGE_SIZE);
+    }
+
+    // 최신순으로 skipped건을 건너뛴 위치의 커서, 첫 페이지는 커서가 없다.
+    private static String cursorAfter(long skipped) {
+        if (skipped == 0) {
+            return null;
+        }
+        long id = TRANSACTION_COUNT - skipped + 1;
+        return FIRST_TRANSACTED_AT.plusSeconds(id) + "_" + id;
+    }
+}
@@ -0,0 +1,43 @@
+package com.maeng0830.account.benchmark;
+
+import com.maeng0830.account.service.TransactionIdGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// 64bit 거래 id 발급과 이전 방식(UUID 문자열) 비교
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TransactionIdBenchmark {
+    private final TransactionIdGenerator transactionIdGenerator = new TransactionIdGenerator(0L);
+
+    @Benchmark
+    public String transactionId() {
+        return transactionIdGenerator.nextId();
+    }
+
+    @Benchmark
+    public String uuid() {
+        return UUID.randomUUID().toString().replace("-", "");
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String transactionIdContended() {
+        return transactionIdGenerator.nextId();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String uuidContended() {
+        return uuid();
+    }
+}
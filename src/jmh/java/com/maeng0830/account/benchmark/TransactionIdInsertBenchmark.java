@@ -0,0 +1,123 @@
+package com.maeng0830.account.benchmark;
+
+import com.maeng0830.account.domain.TransactionIdCodec;
+import com.maeng0830.account.service.TransactionIdGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// 거래 기록 insert 처리량(inserts/sec) - 64bit 거래 id(BIGINT)와 이전 방식(UUID 문자열, VARCHAR(32)) 비교
+// transaction 테이블과 거래 id 컬럼만 다른 transaction_uuid 테이블을 만들고, 같은 JDBC batch insert로 넣는다.
+// UUID는 순서가 없어서 유니크 인덱스의 임의 위치에 들어가므로, 테이블에 거래가 쌓여 있는 경우(existingRows)도 비교한다.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g") // 거래 1,000,000건을 두 테이블에 올린다.
+public class TransactionIdInsertBenchmark {
+    private static final int INSERTS = 100;
+    private static final long ACCOUNT_ID = 1_000_000L;
+    private static final long INSERT_CHUNK_SIZE = 20_000L;
+    private static final String INSERT_COLUMNS = "(id, transaction_type, transaction_result_type, account_id, " +
+            "amount, balance_snapshot, transaction_id, transacted_at, created_at, updated_at)";
+    private static final String INSERT_VALUES = " values (?, 'USE', 'S', ?, 100, 0, ?, ?, ?, ?)";
+
+    @Param({"0", "1000000"})
+    public long existingRows;
+
+    private final TransactionIdGenerator transactionIdGenerator = new TransactionIdGenerator(0L);
+    private ConfigurableApplicationContext context;
+    private JdbcTemplate jdbcTemplate;
+    private long nextId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start();
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        jdbcTemplate.update("insert into account_user(id, name, created_at, updated_at) " +
+                "values (?, 'user', now(), now())", ACCOUNT_ID);
+        jdbcTemplate.update("insert into account(id, account_user_id, account_number, account_status, " +
+                "balance, initial_balance, version, registered_at) " +
+                "values (?, ?, '9000000000', 'IN_USE', 0, 0, 0, now())", ACCOUNT_ID, ACCOUNT_ID);
+
+        // 거래 id 컬럼 외에는 transaction 테이블과 같은 제약/인덱스
+        jdbcTemplate.execute("create table transaction_uuid (" +
+                "id bigint not null primary key, " +
+                "transaction_type varchar(255), transaction_result_type varchar(255), " +
+                "account_id bigint references account(id), amount bigint, balance_snapshot bigint, " +
+                "transaction_id varchar(32) not null, transacted_at timestamp, " +
+                "created_at timestamp, updated_at timestamp, " +
+                "constraint uk_transaction_uuid_transaction_id unique (transaction_id))");
+        jdbcTemplate.execute("create index idx_transaction_uuid_account_transacted_at " +
+                "on transaction_uuid(account_id, transacted_at desc, id desc)");
+
+        // 한 문장으로 넣으면 H2 메모리가 부족해서 나눠서 넣는다.
+        for (long from = 1; from <= existingRows; from += INSERT_CHUNK_SIZE) {
+            long to = Math.min(from + INSERT_CHUNK_SIZE - 1, existingRows);
+            jdbcTemplate.update("insert into transaction" + INSERT_COLUMNS +
+                    " select x, 'USE', 'S', ?, 100, 0, x, now(), now(), now() from system_range(?, ?)",
+                    ACCOUNT_ID, from, to);
+            jdbcTemplate.update("insert into transaction_uuid" + INSERT_COLUMNS +
+                    " select x, 'USE', 'S', ?, 100, 0, replace(random_uuid(), '-', ''), now(), now(), now() " +
+                    "from system_range(?, ?)",
+                    ACCOUNT_ID, from, to);
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void resetIds() {
+        nextId = existingRows + 1;
+    }
+
+    // 측정 중에 넣은 거래는 iteration마다 지워서 테이블 크기를 existingRows 근처로 유지한다.
+    @TearDown(Level.Iteration)
+    public void deleteInserted() {
+        jdbcTemplate.update("delete from transaction where id > ?", existingRows);
+        jdbcTemplate.update("delete from transaction_uuid where id > ?", existingRows);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(INSERTS)
+    public int[] transactionId() {
+        List<Object[]> rows = new ArrayList<>(INSERTS);
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        for (int i = 0; i < INSERTS; i++) {
+            rows.add(new Object[]{nextId++, ACCOUNT_ID,
+                    TransactionIdCodec.decode(transactionIdGenerator.nextId()), now, now, now});
+        }
+        return jdbcTemplate.batchUpdate("insert into transaction" + INSERT_COLUMNS + INSERT_VALUES, rows);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(INSERTS)
+    public int[] uuid() {
+        List<Object[]> rows = new ArrayList<>(INSERTS);
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        for (int i = 0; i < INSERTS; i++) {
+            rows.add(new Object[]{nextId++, ACCOUNT_ID,
+                    UUID.randomUUID().toString().replace("-", ""), now, now, now});
+        }
+        return jdbcTemplate.batchUpdate("insert into transaction_uuid" + INSERT_COLUMNS + INSERT_VALUES, rows);
+    }
+}
@@ -0,0 +1,73 @@
+package com.maeng0830.account.benchmark;
+
+import com.maeng0830.account.controller.TransactionController;
+import com.maeng0830.account.dto.TransactionDto;
+import com.maeng0830.account.dto.UseBalance;
+import com.maeng0830.account.service.AccountService;
+import com.maeng0830.account.service.TransactionService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+// 잔액 사용/취소 처리량
+// 잔액 변경 방식(account.balance.concurrency-mode) 별로 컨텍스트를 따로 띄워서 비교한다.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class TransactionServiceBenchmark {
+    private static final Long USER_ID = 1L;
+    private static final Long INITIAL_BALANCE = Long.MAX_VALUE / 2;
+    private static final Long AMOUNT = 100L;
+
+    @Param({"LOCK", "CONDITIONAL_UPDATE"})
+    public String concurrencyMode;
+
+    private ConfigurableApplicationContext context;
+    private TransactionService transactionService;
+    private TransactionController transactionController;
+    private String accountNumber;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("--account.balance.concurrency-mode=" + concurrencyMode);
+        transactionService = context.getBean(TransactionService.class);
+        transactionController = context.getBean(TransactionController.class);
+        accountNumber = context.getBean(AccountService.class)
+                .createAccount(USER_ID, INITIAL_BALANCE)
+                .getAccountNumber();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public TransactionDto useBalance() {
+        return transactionService.useBalance(USER_ID, accountNumber, AMOUNT);
+    }
+
+    // cancelBalance만 따로 측정하려면 취소할 거래가 매번 필요하므로, 사용 + 취소를 한 번에 측정한다.
+    @Benchmark
+    public TransactionDto useAndCancelBalance() {
+        TransactionDto used = transactionService.useBalance(USER_ID, accountNumber, AMOUNT);
+        return transactionService.cancelBalance(used.getTransactionId(), accountNumber, AMOUNT);
+    }
+
+    // 컨트롤러부터 호출해서 계좌 락(@AccountLock)과 멱등 키 처리(@Idempotent)까지 포함한다.
+    @Benchmark
+    public UseBalance.Response useBalanceWithAccountLock() {
+        return transactionController.useBalance(
+                new UseBalance.Request(USER_ID, accountNumber, AMOUNT));
+    }
+}
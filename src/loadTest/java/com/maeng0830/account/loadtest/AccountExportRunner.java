@@ -0,0 +1,89 @@
+package com.maeng0830.account.loadtest;
+
+import com.maeng0830.account.AccountApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+
+// 계좌 내보내기(/accounts/export) 메모리 확인
+// 계좌를 loadtest.accounts개(기본 100만) 넣고, 작은 힙(-Xmx)으로 띄운 애플리케이션에서 전체 계좌를 내려받는다.
+// H2를 파일 DB로 사용해야 계좌 행이 힙에 올라가지 않으므로, -Xmx 안에서 끝나면 내보내기가 계좌 수와 관계없이 일정한 메모리로 동작하는 것이다.
+// 내려받은 줄 수가 계좌 수와 다르면 실패한다.
+public class AccountExportRunner {
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.fromSystemProperties();
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(AccountApplication.class)
+                .logStartupInfo(false)
+                .run(LoadTestRunner.withDefaults(args));
+        try {
+            long seedStartedAt = System.nanoTime();
+            new DataSeeder(context.getBean(JdbcTemplate.class), config).seed();
+            System.out.printf("Seeded %d users and %d accounts in %d ms%n",
+                    config.users, config.accounts, (System.nanoTime() - seedStartedAt) / 1_000_000);
+
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            resetPeakHeapUsage();
+            long exportStartedAt = System.nanoTime();
+            long exported = export(URI.create("http://127.0.0.1:" + port + "/accounts/export"));
+            long elapsedMillis = (System.nanoTime() - exportStartedAt) / 1_000_000;
+
+            System.out.printf("Exported %d accounts in %d ms, peak heap used : %.1f MB (max %.1f MB)%n",
+                    exported, elapsedMillis, peakHeapUsed() / 1024.0 / 1024.0,
+                    Runtime.getRuntime().maxMemory() / 1024.0 / 1024.0);
+            if (exported != config.accounts) {
+                throw new IllegalStateException(
+                        "Exported " + exported + " accounts, expected " + config.accounts);
+            }
+        } finally {
+            context.close();
+        }
+    }
+
+    // 응답을 모으지 않고 줄 수만 센다.
+    private static long export(URI uri) throws Exception {
+        HttpResponse<InputStream> response = HttpClient.newHttpClient().send(
+                HttpRequest.newBuilder(uri).GET().build(), HttpResponse.BodyHandlers.ofInputStream());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Export failed with status " + response.statusCode());
+        }
+
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(response.body(), StandardCharsets.UTF_8))) {
+            long lines = 0;
+            while (reader.readLine() != null) {
+                lines++;
+            }
+            return lines;
+        }
+    }
+
+    private static void resetPeakHeapUsage() {
+        System.gc();
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                pool.resetPeakUsage();
+            }
+        }
+    }
+
+    // 힙 영역(pool) 별 최대 사용량의 합, 영역마다 최대가 된 시점이 달라서 실제 최대값보다 클 수 있다.
+    private static long peakHeapUsed() {
+        return ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(pool -> pool.getType() == MemoryType.HEAP)
+                .mapToLong(pool -> pool.getPeakUsage().getUsed())
+                .sum();
+    }
+}
@@ -0,0 +1,55 @@
+package com.maeng0830.account.loadtest;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+// 사용자 N명, 계좌 M개를 INSERT ... SELECT로 한 번에 넣는다(data.sql과 같은 방식).
+// 애플리케이션이 발급하는 id/계좌 번호와 겹치지 않도록 별도의 범위를 사용한다.
+// i번째 계좌의 소유자는 (i % N)번째 사용자다.
+final class DataSeeder {
+    static final long FIRST_USER_ID = 1_000_000L;
+    static final long FIRST_ACCOUNT_ID = 1_000_000L;
+    static final long FIRST_ACCOUNT_NUMBER = 9_000_000_000L;
+    private static final long INSERT_CHUNK_SIZE = 20_000L;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final LoadTestConfig config;
+
+    DataSeeder(JdbcTemplate jdbcTemplate, LoadTestConfig config) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.config = config;
+    }
+
+    void seed() {
+        // 한 문장으로 넣으면 H2 메모리가 부족해서 나눠서 넣는다.
+        for (long from = 0; from < config.users; from += INSERT_CHUNK_SIZE) {
+            jdbcTemplate.update("insert into account_user(id, name, created_at, updated_at) " +
+                            "select x, concat('user', x), now(), now() from system_range(?, ?)",
+                    FIRST_USER_ID + from,
+                    FIRST_USER_ID + Math.min(from + INSERT_CHUNK_SIZE, config.users) - 1);
+        }
+
+        for (long from = 0; from < config.accounts; from += INSERT_CHUNK_SIZE) {
+            jdbcTemplate.update("insert into account(id, account_user_id, account_number, " +
+                            "account_status, balance, initial_balance, version, registered_at) " +
+                            "select x, ? + mod(x - ?, ?), cast(? + x - ? as varchar), " +
+                            "'IN_USE', ?, ?, 0, now() from system_range(?, ?)",
+                    FIRST_USER_ID, FIRST_ACCOUNT_ID, config.users,
+                    FIRST_ACCOUNT_NUMBER, FIRST_ACCOUNT_ID,
+                    config.initialBalance, config.initialBalance,
+                    FIRST_ACCOUNT_ID + from,
+                    FIRST_ACCOUNT_ID + Math.min(from + INSERT_CHUNK_SIZE, config.accounts) - 1);
+        }
+    }
+
+    static long userId(long userIndex) {
+        return FIRST_USER_ID + userIndex;
+    }
+
+    static String accountNumber(long accountIndex) {
+        return String.valueOf(FIRST_ACCOUNT_NUMBER + accountIndex);
+    }
+
+    static long ownerOf(long accountIndex, int users) {
+        return userId(accountIndex % users);
+    }
+}
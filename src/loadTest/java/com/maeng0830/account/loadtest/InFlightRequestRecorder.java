@@ -0,0 +1,59 @@
+package com.maeng0830.account.loadtest;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// 서버가 동시에 처리 중인 요청 수
+// 비동기 요청은 요청 스레드가 반환된 뒤에도 응답이 완료될 때까지 처리 중으로 센다.
+// 요청 처리 스레드 수(server.tomcat.threads.max)와 실행 방식(account.web.execution-mode)에 따라 달라지는 값이라 부하 테스트에서만 등록한다.
+public class InFlightRequestRecorder implements Filter {
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+        inFlight.incrementAndGet();
+        boolean async = false;
+        try {
+            chain.doFilter(request, response);
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new CompletionListener());
+                async = true;
+            }
+        } finally {
+            if (!async) {
+                inFlight.decrementAndGet();
+            }
+        }
+    }
+
+    int getInFlight() {
+        return inFlight.get();
+    }
+
+    private final class CompletionListener implements AsyncListener {
+        @Override
+        public void onComplete(AsyncEvent event) {
+            inFlight.decrementAndGet();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+}
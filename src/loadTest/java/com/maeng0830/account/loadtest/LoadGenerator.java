@@ -0,0 +1,225 @@
+package com.maeng0830.account.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// closed-loop 부하 생성기
+// concurrency개의 스레드가 각자 응답을 받는 즉시 다음 요청을 보낸다.
+// 취소와 거래 확인은 같은 스레드가 사용(동기/비동기)에 성공한 거래를 대상으로 하고, 대상이 없으면 사용으로 대신한다.
+final class LoadGenerator {
+    private static final int MAX_RECENT_TRANSACTIONS = 1000;
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final LoadTestConfig config;
+    private final URI baseUri;
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final Operation[] operations;
+    private final int[] cumulativeWeights;
+    private final ZipfSampler hotAccountSampler;
+
+    // 워밍업이 끝나면 새 통계로 교체한다.
+    private volatile Map<Operation, OperationStats> stats;
+    private volatile boolean running;
+
+    LoadGenerator(LoadTestConfig config, URI baseUri, ObjectMapper objectMapper) {
+        this.config = config;
+        this.baseUri = baseUri;
+        this.objectMapper = objectMapper;
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(REQUEST_TIMEOUT)
+                .build();
+
+        this.operations = config.mix.keySet().toArray(new Operation[0]);
+        this.cumulativeWeights = new int[operations.length];
+        int total = 0;
+        for (int i = 0; i < operations.length; i++) {
+            total += config.mix.get(operations[i]);
+            cumulativeWeights[i] = total;
+        }
+        this.hotAccountSampler = config.hotAccounts > 0
+                ? new ZipfSampler(config.hotAccounts, config.zipfExponent)
+                : null;
+    }
+
+    // 워밍업 후 duration 동안 측정한 통계를 반환한다.
+    // onMeasurementStart는 워밍업이 끝나고 측정을 시작할 때 호출된다.
+    Map<Operation, OperationStats> run(Runnable onMeasurementStart) throws InterruptedException {
+        stats = newStats();
+        running = true;
+
+        ExecutorService executorService = Executors.newFixedThreadPool(config.concurrency);
+        for (int i = 0; i < config.concurrency; i++) {
+            executorService.submit(new Worker());
+        }
+
+        Thread.sleep(config.warmup.toMillis());
+        Map<Operation, OperationStats> measured = newStats();
+        stats = measured;
+        onMeasurementStart.run();
+        Thread.sleep(config.duration.toMillis());
+        running = false;
+
+        executorService.shutdown();
+        if (!executorService.awaitTermination(REQUEST_TIMEOUT.getSeconds(), TimeUnit.SECONDS)) {
+            executorService.shutdownNow();
+        }
+        return measured;
+    }
+
+    private static Map<Operation, OperationStats> newStats() {
+        Map<Operation, OperationStats> stats = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values()) {
+            stats.put(operation, new OperationStats());
+        }
+        return stats;
+    }
+
+    private Operation nextOperation(ThreadLocalRandom random) {
+        int value = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (value < cumulativeWeights[i]) {
+                return operations[i];
+            }
+        }
+        throw new IllegalStateException();
+    }
+
+    private long nextAccountIndex(ThreadLocalRandom random) {
+        return hotAccountSampler != null
+                ? hotAccountSampler.sample(random)
+                : random.nextLong(config.accounts);
+    }
+
+    private static final class UsedTransaction {
+        private final String transactionId;
+        private final String accountNumber;
+
+        private UsedTransaction(String transactionId, String accountNumber) {
+            this.transactionId = transactionId;
+            this.accountNumber = accountNumber;
+        }
+    }
+
+    private final class Worker implements Runnable {
+        private final Deque<UsedTransaction> recentTransactions = new ArrayDeque<>();
+
+        @Override
+        public void run() {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            while (running) {
+                try {
+                    execute(nextOperation(random), random);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+
+        private void execute(Operation operation, ThreadLocalRandom random) throws InterruptedException {
+            UsedTransaction target = null;
+            if (operation == Operation.CANCEL) {
+                target = recentTransactions.pollLast();
+            } else if (operation == Operation.QUERY) {
+                target = recentTransactions.peekLast();
+            }
+            if ((operation == Operation.CANCEL || operation == Operation.QUERY) && target == null) {
+                operation = Operation.USE;
+            }
+
+            long accountIndex = nextAccountIndex(random);
+            HttpRequest request;
+            switch (operation) {
+                case CREATE:
+                    request = post("/account", "{\"userId\":" +
+                            DataSeeder.userId(random.nextLong(config.users)) +
+                            ",\"initialBalance\":" + config.initialBalance + "}");
+                    break;
+                case USE:
+                    request = post("/transaction/use", useBody(accountIndex));
+                    break;
+                case ASYNC_USE:
+                    request = post("/transaction/use/async", useBody(accountIndex));
+                    break;
+                case CANCEL:
+                    request = post("/transaction/cancel", "{\"transactionId\":\"" +
+                            target.transactionId + "\",\"accountNumber\":\"" +
+                            target.accountNumber + "\",\"amount\":" + config.amount + "}");
+                    break;
+                case QUERY:
+                    request = get("/transaction/" + target.transactionId);
+                    break;
+                case ACCOUNTS:
+                    request = get("/account?user_id=" + DataSeeder.userId(random.nextLong(config.users)));
+                    break;
+                default:
+                    throw new IllegalStateException();
+            }
+
+            long startedAt = System.nanoTime();
+            String errorCode;
+            JsonNode body = null;
+            try {
+                HttpResponse<String> response = httpClient.send(request,
+                        HttpResponse.BodyHandlers.ofString());
+                if (response.statusCode() != 200) {
+                    errorCode = "HTTP_" + response.statusCode();
+                } else {
+                    // 에러 응답도 HTTP 200으로 내려오기 때문에 body의 errorCode로 구분한다.
+                    body = objectMapper.readTree(response.body());
+                    errorCode = body.has("errorCode") ? body.get("errorCode").asText() : null;
+                }
+            } catch (IOException e) {
+                errorCode = "IO_ERROR";
+            }
+            stats.get(operation).record(System.nanoTime() - startedAt, errorCode);
+
+            if ((operation == Operation.USE || operation == Operation.ASYNC_USE)
+                    && errorCode == null && body.hasNonNull("transactionId")) {
+                recentTransactions.addLast(new UsedTransaction(
+                        body.get("transactionId").asText(), body.get("accountNumber").asText()));
+                if (recentTransactions.size() > MAX_RECENT_TRANSACTIONS) {
+                    recentTransactions.pollFirst();
+                }
+            }
+        }
+
+        private String useBody(long accountIndex) {
+            return "{\"userId\":" + DataSeeder.ownerOf(accountIndex, config.users) +
+                    ",\"accountNumber\":\"" + DataSeeder.accountNumber(accountIndex) +
+                    "\",\"amount\":" + config.amount + "}";
+        }
+
+        private HttpRequest post(String path, String json) {
+            return HttpRequest.newBuilder(baseUri.resolve(path))
+                    .timeout(REQUEST_TIMEOUT)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(json))
+                    .build();
+        }
+
+        private HttpRequest get(String path) {
+            return HttpRequest.newBuilder(baseUri.resolve(path))
+                    .timeout(REQUEST_TIMEOUT)
+                    .GET()
+                    .build();
+        }
+    }
+}
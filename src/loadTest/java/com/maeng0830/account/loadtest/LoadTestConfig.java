@@ -0,0 +1,130 @@
+package com.maeng0830.account.loadtest;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+// 부하 테스트 설정, 시스템 프로퍼티(loadtest.*)로 지정한다.
+// ex) ./gradlew loadTest -Ploadtest.concurrency=64 -Ploadtest.mix=use:80,cancel:20
+final class LoadTestConfig {
+    private static final String PREFIX = "loadtest.";
+
+    final int users;
+    final int accounts;
+    final long initialBalance;
+    final long amount;
+    final int concurrency;
+    final Duration warmup;
+    final Duration duration;
+    final Map<Operation, Integer> mix;
+    // "|"로 여러 비율을 넘기면 비율 별로 한 번씩 실행해서 비교한다. ex) use:100|async-use:100
+    final List<Map<Operation, Integer>> mixes;
+    // 0보다 크면 사용/취소 요청을 앞쪽 hotAccounts개 계좌에 Zipf 분포로 몰아준다.
+    final int hotAccounts;
+    final double zipfExponent;
+    // 락 방식(account.lock.mode) 별로 한 번씩 실행해서 비교한다, 비어 있으면 애플리케이션 설정을 그대로 사용한다.
+    final List<String> lockModes;
+    // 요청 실행 방식(account.web.execution-mode) 별로 한 번씩 실행해서 비교한다, VIRTUAL은 JDK 21 이상에서만 실행된다.
+    final List<String> executionModes;
+    final Path report;
+
+    private LoadTestConfig(int users, int accounts, long initialBalance, long amount,
+                           int concurrency, Duration warmup, Duration duration,
+                           List<Map<Operation, Integer>> mixes, int hotAccounts, double zipfExponent,
+                           List<String> lockModes, List<String> executionModes, Path report) {
+        if (users < 1 || accounts < 1 || concurrency < 1) {
+            throw new IllegalArgumentException("users, accounts and concurrency must be positive");
+        }
+        if (hotAccounts < 0 || hotAccounts > accounts) {
+            throw new IllegalArgumentException("hot-accounts must be between 0 and accounts");
+        }
+        this.users = users;
+        this.accounts = accounts;
+        this.initialBalance = initialBalance;
+        this.amount = amount;
+        this.concurrency = concurrency;
+        this.warmup = warmup;
+        this.duration = duration;
+        this.mixes = mixes;
+        this.mix = mixes.get(0);
+        this.hotAccounts = hotAccounts;
+        this.zipfExponent = zipfExponent;
+        this.lockModes = lockModes;
+        this.executionModes = executionModes;
+        this.report = report;
+    }
+
+    static LoadTestConfig fromSystemProperties() {
+        return new LoadTestConfig(
+                Integer.parseInt(property("users", "1000")),
+                Integer.parseInt(property("accounts", "5000")),
+                Long.parseLong(property("initial-balance", "1000000000")),
+                Long.parseLong(property("amount", "100")),
+                Integer.parseInt(property("concurrency", "32")),
+                DurationStyle.detectAndParse(property("warmup", "10s")),
+                DurationStyle.detectAndParse(property("duration", "60s")),
+                parseMixes(property("mix", "create:1,use:50,cancel:15,query:24,accounts:10")),
+                Integer.parseInt(property("hot-accounts", "0")),
+                Double.parseDouble(property("zipf-exponent", "1.0")),
+                parseList(property("lock-modes", "")),
+                parseList(property("execution-modes", "")),
+                Paths.get(property("report", "build/reports/loadtest/report.json")));
+    }
+
+    // 같은 설정으로 비율만 바꾼 설정
+    LoadTestConfig withMix(Map<Operation, Integer> mix) {
+        return new LoadTestConfig(users, accounts, initialBalance, amount, concurrency, warmup, duration,
+                Collections.singletonList(mix), hotAccounts, zipfExponent, lockModes, executionModes, report);
+    }
+
+    static List<Map<Operation, Integer>> parseMixes(String value) {
+        return Arrays.stream(value.split("\\|"))
+                .map(LoadTestConfig::parseMix)
+                .collect(Collectors.toList());
+    }
+
+    // "use:80,cancel:20" -> {USE=80, CANCEL=20}
+    static Map<Operation, Integer> parseMix(String value) {
+        Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+        for (String entry : value.split(",")) {
+            String[] keyAndWeight = entry.trim().split(":");
+            if (keyAndWeight.length != 2) {
+                throw new IllegalArgumentException("Invalid mix entry : " + entry);
+            }
+            int weight = Integer.parseInt(keyAndWeight[1].trim());
+            if (weight > 0) {
+                mix.put(Operation.fromKey(keyAndWeight[0].trim()), weight);
+            }
+        }
+        if (mix.isEmpty()) {
+            throw new IllegalArgumentException("Mix has no operation : " + value);
+        }
+        return Collections.unmodifiableMap(mix);
+    }
+
+    private static List<String> parseList(String value) {
+        return Arrays.stream(value.split(","))
+                .map(String::trim)
+                .filter(item -> !item.isEmpty())
+                .collect(Collectors.toList());
+    }
+
+    private static String property(String name, String defaultValue) {
+        return System.getProperty(PREFIX + name, defaultValue);
+    }
+
+    @Override
+    public String toString() {
+        return "users=" + users + ", accounts=" + accounts + ", concurrency=" + concurrency +
+                ", warmup=" + warmup + ", duration=" + duration + ", mix=" + (mixes.size() > 1 ? mixes : mix) +
+                (hotAccounts > 0 ? ", hotAccounts=" + hotAccounts + ", zipfExponent=" + zipfExponent : "");
+    }
+}
@@ -0,0 +1,289 @@
+package com.maeng0830.account.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.maeng0830.account.AccountApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+// 종단 간 부하 테스트
+// 임베디드 Redis, H2와 함께 AccountApplication을 띄우고, 데이터를 넣은 뒤 HTTP로 부하를 준다.
+// 결과(처리량, p50/p99/p999, ErrorCode 별 에러 수, 계좌 별 락 대기, 처리 중 요청 수와 힙 사용량)는 콘솔과 JSON 리포트로 남긴다.
+// 애플리케이션 설정은 커맨드 라인 인자로 바꾼다. ex) --account.balance.concurrency-mode=CONDITIONAL_UPDATE
+public class LoadTestRunner {
+    private static final String[] DEFAULT_ARGS = {
+            "--server.port=0",
+            "--spring.redis.port=16379",
+            "--spring.jpa.properties.hibernate.show_sql=false",
+            "--spring.h2.console.enabled=false",
+            "--account.reconciliation.cron=-",
+            "--logging.level.root=WARN"
+    };
+    private static final String LOCK_MODE_ARG = "--account.lock.mode=";
+    private static final String EXECUTION_MODE_ARG = "--account.web.execution-mode=";
+    private static final int REPORTED_ACCOUNTS = 10;
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.fromSystemProperties();
+        System.out.println("Load test : " + config);
+
+        // 같은 조건으로 실행 방식, 락 방식이나 요청 비율만 바꿔서 실행한다, 실행마다 컨텍스트(H2, Redis)를 새로 띄운다.
+        List<String> executionModes = config.executionModes.isEmpty()
+                ? Collections.singletonList(null) : config.executionModes;
+        List<String> lockModes = config.lockModes.isEmpty()
+                ? Collections.singletonList(null) : config.lockModes;
+        List<Map<String, Object>> runs = new ArrayList<>();
+        for (String executionMode : executionModes) {
+            for (String lockMode : lockModes) {
+                List<String> runArgs = new ArrayList<>(Arrays.asList(args));
+                replaceArg(runArgs, EXECUTION_MODE_ARG, executionMode);
+                replaceArg(runArgs, LOCK_MODE_ARG, lockMode);
+                for (Map<Operation, Integer> mix : config.mixes) {
+                    Map<String, Object> report = run(config.withMix(mix), withDefaults(runArgs.toArray(new String[0])));
+                    report.put("label", label(executionMode, lockMode, mix, config));
+                    runs.add(report);
+                }
+            }
+        }
+        if (runs.size() > 1) {
+            printComparison(runs);
+        }
+
+        write(config, runs);
+    }
+
+    private static void replaceArg(List<String> args, String key, String value) {
+        if (value != null) {
+            args.removeIf(arg -> arg.startsWith(key));
+            args.add(key + value);
+        }
+    }
+
+    private static String label(String executionMode, String lockMode,
+                                Map<Operation, Integer> mix, LoadTestConfig config) {
+        List<String> parts = new ArrayList<>();
+        if (executionMode != null) {
+            parts.add(executionMode);
+        }
+        if (lockMode != null) {
+            parts.add(lockMode);
+        }
+        if (config.mixes.size() > 1) {
+            parts.add(mix.entrySet().stream()
+                    .map(entry -> entry.getKey().getKey() + ":" + entry.getValue())
+                    .collect(Collectors.joining(",")));
+        }
+        return String.join(" ", parts);
+    }
+
+    private static Map<String, Object> run(LoadTestConfig config, String[] appArgs) throws Exception {
+        System.out.println("\nApplication args : " + String.join(" ", appArgs));
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(
+                AccountApplication.class, LockContentionRecorder.class, InFlightRequestRecorder.class)
+                .logStartupInfo(false)
+                .run(appArgs);
+        try {
+            long seedStartedAt = System.nanoTime();
+            new DataSeeder(context.getBean(JdbcTemplate.class), config).seed();
+            System.out.printf("Seeded %d users and %d accounts in %d ms%n",
+                    config.users, config.accounts, (System.nanoTime() - seedStartedAt) / 1_000_000);
+
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            LockContentionRecorder lockContentionRecorder = context.getBean(LockContentionRecorder.class);
+            ResourceSampler resourceSampler = new ResourceSampler(context.getBean(InFlightRequestRecorder.class));
+            Map<Operation, OperationStats> stats = new LoadGenerator(
+                    config, URI.create("http://127.0.0.1:" + port), context.getBean(ObjectMapper.class))
+                    .run(() -> {
+                        lockContentionRecorder.reset();
+                        resourceSampler.start();
+                    });
+            resourceSampler.stop();
+
+            Map<String, Object> report = report(config, appArgs, stats);
+            report.put("tomcatThreads", tomcatThreads(context));
+            report.put("resources", resourceSampler.report());
+            report.put("lockContention", lockContentionReport(lockContentionRecorder.getStats()));
+            print(report);
+            return report;
+        } finally {
+            context.close();
+        }
+    }
+
+    // 사용자가 같은 설정을 넘기면 기본값은 사용하지 않는다(같은 키를 두 번 넘기면 값이 합쳐진다).
+    static String[] withDefaults(String[] args) {
+        List<String> merged = new ArrayList<>(Arrays.asList(args));
+        for (String defaultArg : DEFAULT_ARGS) {
+            String key = defaultArg.substring(0, defaultArg.indexOf('=') + 1);
+            if (merged.stream().noneMatch(arg -> arg.startsWith(key))) {
+                merged.add(defaultArg);
+            }
+        }
+        return merged.toArray(new String[0]);
+    }
+
+    private static Map<String, Object> report(LoadTestConfig config, String[] appArgs,
+                                              Map<Operation, OperationStats> stats) {
+        double seconds = config.duration.toMillis() / 1000.0;
+        Map<String, Object> operations = new LinkedHashMap<>();
+        long totalRequests = 0;
+        long totalErrors = 0;
+        Map<String, Long> totalErrorsByCode = new TreeMap<>();
+        for (Map.Entry<Operation, OperationStats> entry : stats.entrySet()) {
+            OperationStats operationStats = entry.getValue();
+            if (operationStats.requests() == 0) {
+                continue;
+            }
+
+            Map<String, Object> operation = new LinkedHashMap<>();
+            operation.put("requests", operationStats.requests());
+            operation.put("errors", operationStats.errorCount());
+            operation.put("throughput", operationStats.requests() / seconds);
+            operation.put("p50", operationStats.percentileMillis(50));
+            operation.put("p99", operationStats.percentileMillis(99));
+            operation.put("p999", operationStats.percentileMillis(99.9));
+            operation.put("max", operationStats.maxMillis());
+            operation.put("errorsByCode", operationStats.errorsByCode());
+            operations.put(entry.getKey().getKey(), operation);
+
+            totalRequests += operationStats.requests();
+            totalErrors += operationStats.errorCount();
+            operationStats.errorsByCode().forEach((code, count) ->
+                    totalErrorsByCode.merge(code, count, Long::sum));
+        }
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("config", config.toString());
+        report.put("applicationArgs", appArgs);
+        report.put("throughput", totalRequests / seconds);
+        report.put("requests", totalRequests);
+        report.put("errors", totalErrors);
+        report.put("errorsByCode", totalErrorsByCode);
+        report.put("operations", operations);
+        return report;
+    }
+
+    // 전체 락 대기 분포와 거절 비율, 가장 오래 기다린 시간(starvation)
+    // 계좌 별로는 락 시도가 많은 순서로 REPORTED_ACCOUNTS개만 남긴다.
+    private static Map<String, Object> lockContentionReport(Map<String, OperationStats> statsByAccount) {
+        OperationStats total = new OperationStats();
+        statsByAccount.values().forEach(total::add);
+
+        List<Map.Entry<String, OperationStats>> busiest = new ArrayList<>(statsByAccount.entrySet());
+        busiest.sort(Comparator.comparingLong(
+                (Map.Entry<String, OperationStats> entry) -> entry.getValue().requests()).reversed());
+        Map<String, Object> accounts = new LinkedHashMap<>();
+        for (Map.Entry<String, OperationStats> entry : busiest.subList(
+                0, Math.min(REPORTED_ACCOUNTS, busiest.size()))) {
+            accounts.put(entry.getKey(), lockWaitReport(entry.getValue()));
+        }
+
+        Map<String, Object> report = lockWaitReport(total);
+        report.put("lockedAccounts", statsByAccount.size());
+        report.put("accounts", accounts);
+        return report;
+    }
+
+    private static Map<String, Object> lockWaitReport(OperationStats stats) {
+        long rejected = LockContentionRecorder.rejected(stats);
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("attempts", stats.requests());
+        report.put("rejected", rejected);
+        report.put("rejectedRatio", stats.requests() == 0 ? 0.0 : (double) rejected / stats.requests());
+        report.put("p50", stats.percentileMillis(50));
+        report.put("p99", stats.percentileMillis(99));
+        report.put("p999", stats.percentileMillis(99.9));
+        report.put("max", stats.maxMillis());
+        return report;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void print(Map<String, Object> report) {
+        System.out.printf("%nThroughput : %.1f req/s, requests : %d, errors : %d%n",
+                (double) report.get("throughput"), (long) report.get("requests"), (long) report.get("errors"));
+        System.out.printf("%-10s %10s %8s %10s %9s %9s %9s %9s%n",
+                "operation", "requests", "errors", "req/s", "p50(ms)", "p99(ms)", "p999(ms)", "max(ms)");
+        ((Map<String, Map<String, Object>>) report.get("operations")).forEach((name, operation) ->
+                System.out.printf("%-10s %10d %8d %10.1f %9.2f %9.2f %9.2f %9.2f%n",
+                        name, operation.get("requests"), operation.get("errors"), operation.get("throughput"),
+                        operation.get("p50"), operation.get("p99"), operation.get("p999"), operation.get("max")));
+        ((Map<String, Long>) report.get("errorsByCode")).forEach((code, count) ->
+                System.out.printf("  %-32s %d%n", code, count));
+
+        Map<String, Object> resources = (Map<String, Object>) report.get("resources");
+        System.out.printf("%nIn-flight avg/max : %.1f/%d, platform threads max : %d, heap avg/max : %.1f/%.1f MB"
+                        + " (baseline %.1f MB), heap per in-flight : %.1f KB%n",
+                resources.get("inFlightAvg"), resources.get("inFlightMax"), resources.get("platformThreadsMax"),
+                resources.get("heapUsedAvgMb"), resources.get("heapUsedMaxMb"), resources.get("heapBaselineMb"),
+                resources.get("heapPerInFlightKb"));
+
+        Map<String, Object> lockContention = (Map<String, Object>) report.get("lockContention");
+        if ((long) lockContention.get("attempts") == 0) {
+            return;
+        }
+        System.out.printf("%nLock wait (%d accounts)%n", (int) lockContention.get("lockedAccounts"));
+        System.out.printf("%-12s %10s %10s %9s %9s %9s %9s%n",
+                "account", "attempts", "rejected", "p50(ms)", "p99(ms)", "p999(ms)", "max(ms)");
+        printLockWait("total", lockContention);
+        ((Map<String, Map<String, Object>>) lockContention.get("accounts")).forEach(
+                LoadTestRunner::printLockWait);
+    }
+
+    private static void printLockWait(String account, Map<String, Object> lockWait) {
+        System.out.printf("%-12s %10d %9.2f%% %9.2f %9.2f %9.2f %9.2f%n",
+                account, lockWait.get("attempts"), (double) lockWait.get("rejectedRatio") * 100,
+                lockWait.get("p50"), lockWait.get("p99"), lockWait.get("p999"), lockWait.get("max"));
+    }
+
+    // 요청을 처리한 Tomcat 스레드 수, 동기/비동기 사용은 스레드 당 처리량으로 비교한다.
+    private static int tomcatThreads(ConfigurableApplicationContext context) {
+        return context.getEnvironment().getProperty("server.tomcat.threads.max", Integer.class, 200);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void printComparison(List<Map<String, Object>> runs) {
+        int labelWidth = runs.stream().mapToInt(run -> ((String) run.get("label")).length()).max().orElse(0);
+        String labelFormat = "%-" + Math.max(labelWidth, 4) + "s";
+        System.out.printf("%nComparison%n" + labelFormat + " %10s %14s %10s %12s %14s %14s %10s %10s %10s %14s%n",
+                "run", "req/s", "req/s/thread", "rejected", "use p99(ms)", "wait p99(ms)", "wait max(ms)",
+                "in-flight", "threads", "heap(MB)", "heap/req(KB)");
+        for (Map<String, Object> run : runs) {
+            Map<String, Object> lockContention = (Map<String, Object>) run.get("lockContention");
+            Map<String, Object> resources = (Map<String, Object>) run.get("resources");
+            Map<String, Map<String, Object>> operations = (Map<String, Map<String, Object>>) run.get("operations");
+            Map<String, Object> use = operations.getOrDefault(Operation.USE.getKey(),
+                    operations.getOrDefault(Operation.ASYNC_USE.getKey(), Collections.singletonMap("p99", 0.0)));
+            double throughput = (double) run.get("throughput");
+            System.out.printf(labelFormat + " %10.1f %14.2f %9.2f%% %12.2f %14.2f %14.2f %10d %10d %10.1f %14.1f%n",
+                    run.get("label"), throughput, throughput / (int) run.get("tomcatThreads"),
+                    (double) lockContention.get("rejectedRatio") * 100, use.get("p99"),
+                    lockContention.get("p99"), lockContention.get("max"),
+                    resources.get("inFlightMax"), resources.get("platformThreadsMax"),
+                    resources.get("heapUsedMaxMb"), resources.get("heapPerInFlightKb"));
+        }
+    }
+
+    private static void write(LoadTestConfig config, List<Map<String, Object>> runs) throws IOException {
+        if (config.report.getParent() != null) {
+            Files.createDirectories(config.report.getParent());
+        }
+        new ObjectMapper().writer(SerializationFeature.INDENT_OUTPUT)
+                .writeValue(config.report.toFile(), Collections.singletonMap("runs", runs));
+        System.out.println("\nReport : " + config.report.toAbsolutePath());
+    }
+}
@@ -0,0 +1,46 @@
+package com.maeng0830.account.loadtest;
+
+import com.maeng0830.account.exception.AccountException;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static com.maeng0830.account.type.ErrorCode.ACCOUNT_TRANSACTION_LOCK;
+
+// 계좌 별 락 대기 시간과 ACCOUNT_TRANSACTION_LOCK 거절 수를 기록한다.
+// 운영 메트릭(account.lock.wait)은 계좌 번호로 태그를 달지 않기 때문에, 부하 테스트에서만 이 aspect를 추가로 등록한다.
+@Aspect
+public class LockContentionRecorder {
+    private volatile Map<String, OperationStats> stats = new ConcurrentHashMap<>();
+
+    @Around("execution(* com.maeng0830.account.service.LockService+.lock(..)) && args(accountNumber, ..)")
+    public Object record(ProceedingJoinPoint pjp, String accountNumber) throws Throwable {
+        long startedAt = System.nanoTime();
+        String errorCode = null;
+        try {
+            return pjp.proceed();
+        } catch (AccountException e) {
+            errorCode = e.getErrorCode().name();
+            throw e;
+        } finally {
+            stats.computeIfAbsent(accountNumber, key -> new OperationStats())
+                    .record(System.nanoTime() - startedAt, errorCode);
+        }
+    }
+
+    // 워밍업 동안 기록한 값은 버린다.
+    void reset() {
+        stats = new ConcurrentHashMap<>();
+    }
+
+    Map<String, OperationStats> getStats() {
+        return stats;
+    }
+
+    static long rejected(OperationStats accountStats) {
+        return accountStats.errorsByCode().getOrDefault(ACCOUNT_TRANSACTION_LOCK.name(), 0L);
+    }
+}
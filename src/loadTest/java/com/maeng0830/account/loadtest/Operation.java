@@ -0,0 +1,30 @@
+package com.maeng0830.account.loadtest;
+
+// 부하 테스트에서 호출하는 API
+enum Operation {
+    CREATE("create"), // POST /account
+    USE("use"), // POST /transaction/use
+    ASYNC_USE("async-use"), // POST /transaction/use/async
+    CANCEL("cancel"), // POST /transaction/cancel
+    QUERY("query"), // GET /transaction/{transactionId}
+    ACCOUNTS("accounts"); // GET /account?user_id=
+
+    private final String key;
+
+    Operation(String key) {
+        this.key = key;
+    }
+
+    String getKey() {
+        return key;
+    }
+
+    static Operation fromKey(String key) {
+        for (Operation operation : values()) {
+            if (operation.key.equals(key)) {
+                return operation;
+            }
+        }
+        throw new IllegalArgumentException("Unknown operation : " + key);
+    }
+}
@@ -0,0 +1,56 @@
+package com.maeng0830.account.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// API 하나의 응답 시간 분포(마이크로초)와 에러 코드 별 건수
+final class OperationStats {
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    private final Histogram latencies = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+    private final Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+
+    // errorCode가 null이면 성공
+    void record(long elapsedNanos, String errorCode) {
+        latencies.recordValue(Math.min(
+                TimeUnit.NANOSECONDS.toMicros(elapsedNanos), HIGHEST_TRACKABLE_MICROS));
+        if (errorCode != null) {
+            errors.computeIfAbsent(errorCode, key -> new LongAdder()).increment();
+        }
+    }
+
+    // 여러 계좌의 통계를 합칠 때 사용한다.
+    void add(OperationStats other) {
+        latencies.add(other.latencies);
+        other.errors.forEach((code, count) ->
+                errors.computeIfAbsent(code, key -> new LongAdder()).add(count.sum()));
+    }
+
+    long requests() {
+        return latencies.getTotalCount();
+    }
+
+    long errorCount() {
+        return errors.values().stream().mapToLong(LongAdder::sum).sum();
+    }
+
+    Map<String, Long> errorsByCode() {
+        Map<String, Long> result = new TreeMap<>();
+        errors.forEach((code, count) -> result.put(code, count.sum()));
+        return result;
+    }
+
+    double percentileMillis(double percentile) {
+        return latencies.getValueAtPercentile(percentile) / 1000.0;
+    }
+
+    double maxMillis() {
+        return latencies.getMaxValue() / 1000.0;
+    }
+}
@@ -0,0 +1,80 @@
+package com.maeng0830.account.loadtest;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// 측정 구간 동안 일정 간격으로 처리 중인 요청 수, 플랫폼 스레드 수, 힙 사용량을 기록한다.
+// 요청 당 힙은 측정 직전(GC 이후) 힙 대비 평균 증가량을 평균 처리 중 요청 수로 나눈 근사값이다.
+// 가상 스레드의 스택은 힙에 있고 플랫폼 스레드의 스택은 힙 밖에 있으므로, 실행 방식을 비교할 때는 스레드 수와 함께 본다.
+// 부하 생성기도 같은 JVM에서 실행되므로 스레드 수와 힙에는 부하 생성기 몫(concurrency개 스레드)이 포함되고, 실행 방식 간 차이로 비교한다.
+final class ResourceSampler {
+    private static final long SAMPLE_INTERVAL_MILLIS = 100L;
+    private static final double MB = 1024.0 * 1024.0;
+
+    private final InFlightRequestRecorder inFlightRequestRecorder;
+    private final MemoryMXBean memoryMXBean = ManagementFactory.getMemoryMXBean();
+    private final ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+
+    private ScheduledExecutorService scheduler;
+    private long baselineHeapUsed;
+    private long samples;
+    private long inFlightSum;
+    private int inFlightMax;
+    private int threadsMax;
+    private long heapUsedSum;
+    private long heapUsedMax;
+
+    ResourceSampler(InFlightRequestRecorder inFlightRequestRecorder) {
+        this.inFlightRequestRecorder = inFlightRequestRecorder;
+    }
+
+    void start() {
+        System.gc();
+        baselineHeapUsed = memoryMXBean.getHeapMemoryUsage().getUsed();
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "resource-sampler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleAtFixedRate(this::sample, 0L, SAMPLE_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    void stop() throws InterruptedException {
+        scheduler.shutdown();
+        scheduler.awaitTermination(1, TimeUnit.SECONDS);
+    }
+
+    // 스케줄러 스레드 하나에서만 호출된다.
+    private void sample() {
+        int inFlight = inFlightRequestRecorder.getInFlight();
+        long heapUsed = memoryMXBean.getHeapMemoryUsage().getUsed();
+        samples++;
+        inFlightSum += inFlight;
+        inFlightMax = Math.max(inFlightMax, inFlight);
+        threadsMax = Math.max(threadsMax, threadMXBean.getThreadCount());
+        heapUsedSum += heapUsed;
+        heapUsedMax = Math.max(heapUsedMax, heapUsed);
+    }
+
+    Map<String, Object> report() {
+        double inFlightAvg = samples == 0 ? 0.0 : (double) inFlightSum / samples;
+        double heapUsedAvg = samples == 0 ? 0.0 : (double) heapUsedSum / samples;
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("inFlightAvg", inFlightAvg);
+        report.put("inFlightMax", inFlightMax);
+        report.put("platformThreadsMax", threadsMax);
+        report.put("heapBaselineMb", baselineHeapUsed / MB);
+        report.put("heapUsedAvgMb", heapUsedAvg / MB);
+        report.put("heapUsedMaxMb", heapUsedMax / MB);
+        report.put("heapPerInFlightKb", inFlightAvg == 0.0
+                ? 0.0 : Math.max(0.0, heapUsedAvg - baselineHeapUsed) / inFlightAvg / 1024.0);
+        return report;
+    }
+}
@@ -0,0 +1,32 @@
+package com.maeng0830.account.loadtest;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+// 0 ~ n-1 중 하나를 Zipf 분포로 뽑는다. k번째(0부터)가 뽑힐 확률은 1 / (k + 1)^exponent에 비례한다.
+// exponent가 클수록 앞쪽 몇 개에 요청이 몰린다(0이면 균등 분포).
+final class ZipfSampler {
+    private final double[] cumulativeProbabilities;
+
+    ZipfSampler(int n, double exponent) {
+        if (n < 1 || exponent < 0) {
+            throw new IllegalArgumentException("n must be positive and exponent must not be negative");
+        }
+
+        cumulativeProbabilities = new double[n];
+        double sum = 0;
+        for (int k = 0; k < n; k++) {
+            sum += 1.0 / Math.pow(k + 1, exponent);
+            cumulativeProbabilities[k] = sum;
+        }
+        for (int k = 0; k < n; k++) {
+            cumulativeProbabilities[k] /= sum;
+        }
+    }
+
+    int sample(ThreadLocalRandom random) {
+        int index = Arrays.binarySearch(cumulativeProbabilities, random.nextDouble());
+        // 정확히 일치하지 않으면 (-(삽입 위치) - 1)을 반환한다.
+        return Math.min(index >= 0 ? index : -index - 1, cumulativeProbabilities.length - 1);
+    }
+}
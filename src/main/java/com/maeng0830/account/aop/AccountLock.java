@@ -8,6 +8,9 @@ import java.lang.annotation.*;
 @Documented
 @Inherited
 public @interface AccountLock {
-    long tryLockTime() default 5000L;
+    // 락 획득 대기 시간(ms)
+    long tryLockTime() default 1000L;
 
+    // 락 보유 시간(ms), -1이면 메서드가 끝날 때까지 watchdog이 만료 시간을 연장한다.
+    long leaseTime() default -1L;
 }
@@ -0,0 +1,22 @@
+package com.maeng0830.account.aop;
+
+// 현재 스레드가 보유한 계좌 락의 fencing token을 전달하기 위한 컨텍스트
+// 락을 보유하지 않은 경우 fencing token은 null이다.
+public class AccountLockContext {
+    private static final ThreadLocal<Long> FENCING_TOKEN = new ThreadLocal<>();
+
+    private AccountLockContext() {
+    }
+
+    public static Long getFencingToken() {
+        return FENCING_TOKEN.get();
+    }
+
+    public static void setFencingToken(Long fencingToken) {
+        FENCING_TOKEN.set(fencingToken);
+    }
+
+    public static void clear() {
+        FENCING_TOKEN.remove();
+    }
+}
@@ -0,0 +1,8 @@
+package com.maeng0830.account.aop;
+
+public interface IdempotencyKeyInterface {
+    String getAccountNumber();
+
+    // 멱등 키가 없으면(null) 매번 새 요청으로 처리한다.
+    String getIdempotencyKey();
+}
@@ -0,0 +1,11 @@
+package com.maeng0830.account.aop;
+
+import java.lang.annotation.*;
+
+// 요청에 멱등 키가 있으면, 같은 키로 들어온 재요청에 처음 응답을 그대로 반환한다.
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@Inherited
+public @interface Idempotent {
+}
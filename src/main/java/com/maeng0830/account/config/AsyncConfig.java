@@ -0,0 +1,33 @@
+package com.maeng0830.account.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+@EnableAsync // @Async를 적용하기 위한 어노테이션
+public class AsyncConfig {
+    @Value("${account.async.core-pool-size:8}")
+    private int corePoolSize;
+
+    @Value("${account.async.max-pool-size:16}")
+    private int maxPoolSize;
+
+    @Value("${account.async.queue-capacity:1000}")
+    private int queueCapacity;
+
+    // 잔액 사용 요청을 처리하는 전용 스레드 풀
+    // 큐가 가득 차면 TaskRejectedException을 던져서 요청 스레드가 대기하지 않도록 한다.
+    @Bean
+    public ThreadPoolTaskExecutor transactionTaskExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(corePoolSize);
+        executor.setMaxPoolSize(maxPoolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("transaction-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        return executor;
+    }
+}
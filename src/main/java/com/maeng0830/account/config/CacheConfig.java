@@ -0,0 +1,64 @@
+package com.maeng0830.account.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+import static com.maeng0830.account.service.AccountCache.ACCOUNTS_BY_USER;
+import static com.maeng0830.account.service.IdempotencyStore.IDEMPOTENT_RESPONSES;
+import static com.maeng0830.account.service.TransactionCache.TRANSACTIONS;
+
+@Configuration
+@EnableCaching // @Cacheable을 적용하기 위한 어노테이션
+public class CacheConfig {
+    @Value("${account.cache.accounts-by-user.maximum-size:10000}")
+    private long accountsByUserMaximumSize;
+
+    @Value("${account.cache.accounts-by-user.expire-after-write:60s}")
+    private Duration accountsByUserExpireAfterWrite;
+
+    @Value("${account.cache.transactions.maximum-size:100000}")
+    private long transactionsMaximumSize;
+
+    @Value("${account.cache.transactions.expire-after-write:10m}")
+    private Duration transactionsExpireAfterWrite;
+
+    @Value("${account.idempotency.maximum-size:100000}")
+    private long idempotentResponsesMaximumSize;
+
+    @Value("${account.idempotency.ttl:10m}")
+    private Duration idempotentResponsesTtl;
+
+    // 캐시마다 크기와 TTL을 따로 지정한다.
+    // recordStats()를 켜두면 actuator가 cache.gets(hit/miss), cache.evictions 메트릭을 등록한다.
+    // spring.cache.type=none이면 등록하지 않고, 자동 설정의 NoOpCacheManager로 캐시 없이 동작한다(캐시 효과 비교용).
+    @Bean
+    @ConditionalOnProperty(name = "spring.cache.type", havingValue = "caffeine", matchIfMissing = true)
+    public CacheManager cacheManager() {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.setAllowNullValues(false);
+        cacheManager.registerCustomCache(ACCOUNTS_BY_USER, Caffeine.newBuilder()
+                .maximumSize(accountsByUserMaximumSize)
+                .expireAfterWrite(accountsByUserExpireAfterWrite)
+                .recordStats()
+                .build());
+        cacheManager.registerCustomCache(TRANSACTIONS, Caffeine.newBuilder()
+                .maximumSize(transactionsMaximumSize)
+                .expireAfterWrite(transactionsExpireAfterWrite)
+                .recordStats()
+                .build());
+        cacheManager.registerCustomCache(IDEMPOTENT_RESPONSES, Caffeine.newBuilder()
+                .maximumSize(idempotentResponsesMaximumSize)
+                .expireAfterWrite(idempotentResponsesTtl)
+                .recordStats()
+                .build());
+        return cacheManager;
+    }
+}
@@ -0,0 +1,45 @@
+package com.maeng0830.account.config;
+
+import com.maeng0830.account.repository.AccountRepository;
+import com.maeng0830.account.service.DatabaseLockService;
+import com.maeng0830.account.service.LocalLockService;
+import com.maeng0830.account.service.LockService;
+import com.maeng0830.account.service.RedissonLockService;
+import com.maeng0830.account.service.StripedAccountLock;
+import com.maeng0830.account.type.LockMode;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.redisson.api.RedissonClient;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+
+
+@Configuration
+public class LockConfig {
+    @Value("${account.lock.mode:HYBRID}")
+    private LockMode lockMode;
+
+    // account.lock.mode에 따라 LockService 구현체를 하나만 등록한다.
+    // RedissonClient는 Redis를 사용하는 모드에서만 꺼낸다.
+    @Bean
+    public LockService lockService(ObjectProvider<RedissonClient> redissonClient,
+                                   StripedAccountLock stripedAccountLock,
+                                   AccountRepository accountRepository,
+                                   PlatformTransactionManager transactionManager,
+                                   MeterRegistry meterRegistry) {
+        switch (lockMode) {
+            case LOCAL:
+                return new LocalLockService(stripedAccountLock, meterRegistry);
+            case DISTRIBUTED:
+                return new RedissonLockService(redissonClient.getObject(), null, meterRegistry);
+            case DATABASE:
+                return new DatabaseLockService(accountRepository, transactionManager, meterRegistry);
+            case HYBRID:
+            default:
+                return new RedissonLockService(redissonClient.getObject(),
+                        new LocalLockService(stripedAccountLock, meterRegistry), meterRegistry);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.maeng0830.account.config;
+
+import com.maeng0830.account.exception.AccountException;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.boot.actuate.metrics.web.servlet.WebMvcTagsContributor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import static com.maeng0830.account.type.TransactionResultType.F;
+import static com.maeng0830.account.type.TransactionResultType.S;
+
+@Configuration
+public class MetricsConfig {
+    private static final Tags SUCCESS_TAGS = Tags.of("result", S.name(), "error_code", "NONE");
+
+    // 에러 응답도 HTTP 200으로 내려가기 때문에 status 태그로는 성공/실패를 구분할 수 없다.
+    // http.server.requests에 거래 결과(S/F)와 에러 코드 태그를 추가한다.
+    // 처리된 예외는 DefaultErrorAttributes가 request에 남겨두기 때문에 exception 인자로 전달된다.
+    @Bean
+    public WebMvcTagsContributor transactionResultTagsContributor() {
+        return new WebMvcTagsContributor() {
+            @Override
+            public Iterable<Tag> getTags(HttpServletRequest request, HttpServletResponse response,
+                                         Object handler, Throwable exception) {
+                if (exception == null) {
+                    return SUCCESS_TAGS;
+                }
+
+                String errorCode = exception instanceof AccountException
+                        ? ((AccountException) exception).getErrorCode().name()
+                        : "NONE";
+                return Tags.of("result", F.name(), "error_code", errorCode);
+            }
+
+            @Override
+            public Iterable<Tag> getLongRequestTags(HttpServletRequest request, Object handler) {
+                return Tags.empty();
+            }
+        };
+    }
+}
@@ -15,10 +15,15 @@ public class RedisRepositoryConfig {
     @Value("${spring.redis.port}")
     private int redisPort;
 
+    @Value("${account.lock.watchdog-timeout:10000}")
+    private long lockWatchdogTimeout;
+
     @Bean
     public RedissonClient redissonClient() {
         Config config = new Config();
         config.useSingleServer().setAddress("redis://" + redisHost + ":" + redisPort);
+        // leaseTime 없이 획득한 락은 watchdog이 lockWatchdogTimeout / 3 주기로 만료 시간을 연장한다.
+        config.setLockWatchdogTimeout(lockWatchdogTimeout);
         return Redisson.create(config);
     }
 }
@@ -0,0 +1,9 @@
+package com.maeng0830.account.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+@Configuration
+@EnableScheduling // 정산 작업(@Scheduled)을 실행하기 위한 어노테이션
+public class SchedulingConfig {
+}
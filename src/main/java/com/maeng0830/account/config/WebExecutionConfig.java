@@ -0,0 +1,52 @@
+package com.maeng0830.account.config;
+
+import com.maeng0830.account.type.ExecutionMode;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static com.maeng0830.account.type.ExecutionMode.VIRTUAL;
+
+// Tomcat 요청 처리 스레드 설정
+// VIRTUAL 모드에서는 요청마다 가상 스레드를 만들기 때문에, 락 대기나 JDBC 호출로 블로킹되어도 스레드 풀 크기에 묶이지 않는다.
+// 동시에 처리하는 요청 수는 server.tomcat.max-connections로 제한된다.
+// 가상 스레드를 지원하지 않는 JDK에서 VIRTUAL 모드로 실행하면 플랫폼 스레드로 측정한 결과가 VIRTUAL로 남지 않도록 시작하지 않는다.
+@Slf4j
+@Configuration
+public class WebExecutionConfig {
+    @Value("${account.web.execution-mode:PLATFORM}")
+    private ExecutionMode executionMode;
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> executionModeCustomizer() {
+        return protocolHandler -> {
+            if (executionMode != VIRTUAL) {
+                return;
+            }
+
+            ExecutorService executor = newVirtualThreadPerTaskExecutor();
+            if (executor == null) {
+                throw new IllegalStateException("account.web.execution-mode=VIRTUAL requires JDK 21 or later (running "
+                        + System.getProperty("java.version") + ")");
+            }
+            log.info("Tomcat requests run on virtual threads.");
+            protocolHandler.setExecutor(executor);
+        };
+    }
+
+    // 컴파일 대상이 JDK 11이기 때문에 리플렉션으로 호출하고, 지원하지 않는 JDK에서는 null을 반환한다.
+    private ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            Method method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) method.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+}
@@ -1,14 +1,22 @@
 package com.maeng0830.account.controller;
 
-import com.maeng0830.account.domain.Account;
+import com.maeng0830.account.dto.AccountDto;
 import com.maeng0830.account.dto.AccountInfo;
+import com.maeng0830.account.dto.AccountListing;
 import com.maeng0830.account.dto.CreateAccount;
 import com.maeng0830.account.dto.DeleteAccount;
 import com.maeng0830.account.service.AccountService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import javax.validation.Valid;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -16,6 +24,7 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class AccountController {
     private final AccountService accountService;
+    private final ObjectMapper objectMapper;
 
     // 계좌 생성
     @PostMapping("/account")
@@ -55,9 +64,42 @@ public class AccountController {
     }
 
     @GetMapping("/account/{id}")
-    public Account getAccount(
+    public AccountDto getAccount(
             @PathVariable Long id) {
         return accountService.getAccount(id);
     }
 
+    // 계좌 목록 조회(커서 기반 페이지)
+    @GetMapping("/accounts")
+    public AccountListing.Page getAccountListings(
+            @RequestParam(value = "cursor", required = false) Long cursor,
+            @RequestParam(value = "size", defaultValue = "100") int size,
+            @RequestParam(value = "user_ids", required = false) List<Long> userIds
+    ) {
+        return accountService.getAccountListings(cursor, size, userIds);
+    }
+
+    // 계좌 내보내기
+    // 한 줄에 계좌 하나씩 JSON으로 기록하기 때문에, 전체 목록을 메모리에 올리지 않는다.
+    @GetMapping(value = "/accounts/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportAccounts(
+            @RequestParam(value = "user_ids", required = false) List<Long> userIds
+    ) {
+        StreamingResponseBody body = outputStream ->
+                accountService.exportAccounts(userIds,
+                        listing -> writeLine(outputStream, listing));
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    private void writeLine(OutputStream outputStream, AccountListing listing) {
+        try {
+            outputStream.write(objectMapper.writeValueAsBytes(listing));
+            outputStream.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
 }
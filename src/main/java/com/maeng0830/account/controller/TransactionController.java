@@ -1,54 +1,90 @@
 package com.maeng0830.account.controller;
 
 import com.maeng0830.account.aop.AccountLock;
+import com.maeng0830.account.aop.Idempotent;
 import com.maeng0830.account.dto.CancelBalance;
 import com.maeng0830.account.dto.QueryTransactionResponse;
+import com.maeng0830.account.dto.TransactionHistory;
 import com.maeng0830.account.dto.UseBalance;
 import com.maeng0830.account.exception.AccountException;
+import com.maeng0830.account.service.AsyncTransactionService;
+import com.maeng0830.account.service.FailedTransactionRecorder;
+import com.maeng0830.account.service.HotAccountLedger;
 import com.maeng0830.account.service.TransactionService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.web.bind.annotation.*;
 
 import javax.validation.Valid;
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+
+import static com.maeng0830.account.type.TransactionType.CANCEL;
+import static com.maeng0830.account.type.TransactionType.USE;
 
 @RestController
 @Slf4j
 @RequiredArgsConstructor
 public class TransactionController {
     private final TransactionService transactionService;
+    private final AsyncTransactionService asyncTransactionService;
+    private final FailedTransactionRecorder failedTransactionRecorder;
+    private final HotAccountLedger hotAccountLedger;
 
     // 잔액 사용
     @PostMapping("/transaction/use")
+    @Idempotent
     @AccountLock
     public UseBalance.Response useBalance(
-            @Valid @RequestBody UseBalance.Request request) throws InterruptedException {
+            @Valid @RequestBody UseBalance.Request request) {
         try {
-            Thread.sleep(3000L);
+            // 핫 계좌는 계좌 별 큐에 넘겨서 다른 요청과 함께 처리한다.
+            if (hotAccountLedger.isHotAccount(request.getAccountNumber())) {
+                return UseBalance.Response.from(hotAccountLedger.useBalance(
+                        request.getUserId(), request.getAccountNumber(), request.getAmount()));
+            }
+
             return UseBalance.Response.from(transactionService.useBalance(
                     request.getUserId(), request.getAccountNumber(), request.getAmount()));
         } catch (AccountException e) {
             log.error("Failed to use balance.");
-            transactionService.saveFailedUseTransaction(
-                    request.getAccountNumber(), request.getAmount()
+            // 실패 거래는 요청 스레드에서 저장하지 않고 큐에 넘긴다.
+            failedTransactionRecorder.record(
+                    USE, request.getAccountNumber(), request.getAmount(), e.getBalanceSnapshot()
             );
 
             throw e;
         }
     }
 
+    // 잔액 사용(비동기)
+    // 멱등 키 확인, 계좌 락 대기와 DB 작업은 transactionTaskExecutor에서 처리되고, 요청 스레드는 바로 반환된다.
+    @PostMapping("/transaction/use/async")
+    public CompletableFuture<UseBalance.Response> useBalanceAsync(
+            @Valid @RequestBody UseBalance.Request request) {
+        return asyncTransactionService.useBalance(request);
+    }
+
     // 잔액 사용 취소
     @PostMapping("/transaction/cancel")
+    @Idempotent
     @AccountLock
     public CancelBalance.Response cancelBalance(
             @Valid @RequestBody CancelBalance.Request request) {
         try {
+            if (hotAccountLedger.isHotAccount(request.getAccountNumber())) {
+                return CancelBalance.Response.from(hotAccountLedger.cancelBalance(
+                        request.getTransactionId(), request.getAccountNumber(), request.getAmount()));
+            }
+
             return CancelBalance.Response.from(transactionService.cancelBalance(
                     request.getTransactionId(), request.getAccountNumber(), request.getAmount()));
         } catch (AccountException e) {
             log.error("Failed to cancel use balance.");
-            transactionService.saveFailedCancelTransaction(
-                    request.getAccountNumber(), request.getAmount()
+            // 실패 거래는 요청 스레드에서 저장하지 않고 큐에 넘긴다.
+            failedTransactionRecorder.record(
+                    CANCEL, request.getAccountNumber(), request.getAmount(), e.getBalanceSnapshot()
             );
 
             throw e;
@@ -63,4 +99,18 @@ public class TransactionController {
                transactionService.queryTransaction(transactionId)
        );
     }
+
+    // 계좌 별 거래 내역 조회
+    // 최신 거래부터 조회하고, 다음 페이지는 응답의 nextCursor를 after로 넘겨서 조회한다.
+    @GetMapping("/account/{accountNumber}/transactions")
+    public TransactionHistory.Page getTransactionHistory(
+            @PathVariable String accountNumber,
+            @RequestParam(value = "after", required = false) String after,
+            @RequestParam(value = "from", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(value = "to", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(value = "size", defaultValue = "20") int size) {
+        return transactionService.getTransactionHistory(accountNumber, after, from, to, size);
+    }
 }
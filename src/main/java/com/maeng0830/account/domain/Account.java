@@ -19,19 +19,33 @@ import static com.maeng0830.account.type.ErrorCode.INVALID_REQUEST;
 @AllArgsConstructor
 @Builder
 @Entity // 엔티티는 일종의 설정 클래스, DB의 테이블
+@Table(uniqueConstraints = {
+        @UniqueConstraint(name = "uk_account_account_number", columnNames = "accountNumber") // 계좌 번호 중복 방지, 계좌 번호 조회용 인덱스
+}, indexes = {
+        @Index(name = "idx_account_account_user_id", columnList = "account_user_id") // 사용자의 계좌 조회/개수 확인
+})
 @EntityListeners(AuditingEntityListener.class)
 public class Account {
     @Id // id를 Account라는 테이블의 PK로 지정한다.
-    @GeneratedValue // 자동 값 생성: 1~n
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "account_seq") // 자동 값 생성: 1~n
+    @SequenceGenerator(name = "account_seq", sequenceName = "account_seq",
+            allocationSize = 50) // 시퀀스를 50개 단위로 미리 할당(pooled-lo)
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY) // 계좌 조회 시 사용자는 필요할 때만 조회한다.
     private AccountUser accountUser;
+    @Column(nullable = false)
     private String accountNumber;
 
     @Enumerated(EnumType.STRING) // Enum은 사실 0 ~ n이기 때문에, 실제로 알아볼 수 있도록 String으로 변경해줌.
     private AccountStatus accountStatus;
     private Long balance;
+    @Column(updatable = false)
+    private Long initialBalance; // 계좌 생성 시 잔액, 정산 기준 값
+    private Long lastFencingToken; // 마지막으로 잔액을 변경한 락의 fencing token
+
+    @Version // 동시에 같은 계좌를 변경하면 나중에 커밋하는 쪽이 실패한다.
+    private Long version;
 
     @CreatedDate
     private LocalDateTime registeredAt;
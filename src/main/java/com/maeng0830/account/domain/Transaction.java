@@ -16,10 +16,18 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @Builder
 @Entity
+@Table(uniqueConstraints = {
+        @UniqueConstraint(name = "uk_transaction_transaction_id", columnNames = "transactionId") // 거래 id 조회용 인덱스
+}, indexes = {
+        @Index(name = "idx_transaction_account_transacted_at",
+                columnList = "account_id, transactedAt desc, id desc") // 계좌 별 거래 내역 조회(keyset 페이지), 최신순으로 정렬된 인덱스
+})
 @EntityListeners(AuditingEntityListener.class)
 public class Transaction {
     @Id
-    @GeneratedValue
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "transaction_seq")
+    @SequenceGenerator(name = "transaction_seq", sequenceName = "transaction_seq",
+            allocationSize = 50) // 시퀀스를 50개 단위로 미리 할당(pooled-lo)
     private Long id;
 
     @Enumerated(EnumType.STRING)
@@ -27,11 +35,13 @@ public class Transaction {
     @Enumerated(EnumType.STRING)
     private TransactionResultType transactionResultType;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY) // 거래 조회 시 계좌가 필요하면 fetch join으로 함께 조회한다.
     private Account account;
     private Long amount;
     private Long balanceSnapshot;
 
+    @Column(nullable = false)
+    @Convert(converter = TransactionIdConverter.class) // 16자리 16진수 문자열 <-> BIGINT
     private String transactionId;
     private LocalDateTime transactedAt;
 
@@ -0,0 +1,38 @@
+package com.maeng0830.account.domain;
+
+// 거래 id(64bit)와 외부에 노출되는 문자열(16자리 소문자 16진수) 사이의 변환
+public final class TransactionIdCodec {
+    public static final int LENGTH = 16;
+    public static final long INVALID = -1L; // 발급되지 않는 값
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private TransactionIdCodec() {
+    }
+
+    public static String encode(long id) {
+        char[] chars = new char[LENGTH];
+        for (int i = LENGTH - 1; i >= 0; i--) {
+            chars[i] = HEX[(int) (id & 0xF)];
+            id >>>= 4;
+        }
+        return new String(chars);
+    }
+
+    // 형식에 맞지 않는 문자열은 INVALID로 변환해서, 조회 시 결과가 없도록 한다.
+    public static long decode(String transactionId) {
+        if (transactionId == null || transactionId.length() != LENGTH) {
+            return INVALID;
+        }
+
+        long id = 0;
+        for (int i = 0; i < LENGTH; i++) {
+            int digit = Character.digit(transactionId.charAt(i), 16);
+            if (digit < 0) {
+                return INVALID;
+            }
+            id = (id << 4) | digit;
+        }
+        return id < 0 ? INVALID : id;
+    }
+}
@@ -0,0 +1,18 @@
+package com.maeng0830.account.domain;
+
+import javax.persistence.AttributeConverter;
+import javax.persistence.Converter;
+
+// 엔티티에서는 문자열로 다루고, DB에는 BIGINT로 저장한다.
+@Converter
+public class TransactionIdConverter implements AttributeConverter<String, Long> {
+    @Override
+    public Long convertToDatabaseColumn(String transactionId) {
+        return transactionId == null ? null : TransactionIdCodec.decode(transactionId);
+    }
+
+    @Override
+    public String convertToEntityAttribute(Long id) {
+        return id == null ? null : TransactionIdCodec.encode(id);
+    }
+}
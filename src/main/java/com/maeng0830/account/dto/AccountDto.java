@@ -1,6 +1,7 @@
 package com.maeng0830.account.dto;
 
 import com.maeng0830.account.domain.Account;
+import com.maeng0830.account.type.AccountStatus;
 import lombok.*;
 
 import java.time.LocalDateTime;
@@ -13,6 +14,7 @@ import java.time.LocalDateTime;
 public class AccountDto {
     private Long userId;
     private String accountNumber;
+    private AccountStatus accountStatus;
     private Long balance;
 
     private LocalDateTime registeredAt;
@@ -22,6 +24,7 @@ public class AccountDto {
         return AccountDto.builder()
                 .userId(account.getAccountUser().getId())
                 .accountNumber(account.getAccountNumber())
+                .accountStatus(account.getAccountStatus())
                 .balance(account.getBalance())
                 .registeredAt(account.getRegisteredAt())
                 .unRegisteredAt(account.getUnRegisteredAt())
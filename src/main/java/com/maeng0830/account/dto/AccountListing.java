@@ -0,0 +1,34 @@
+package com.maeng0830.account.dto;
+
+import com.maeng0830.account.type.AccountStatus;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// 계좌 목록 조회/내보내기(back-office 정산용)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AccountListing {
+    private Long id; // 다음 페이지 조회에 사용하는 커서
+    private Long userId;
+    private String accountNumber;
+    private AccountStatus accountStatus;
+    private Long balance;
+
+    private LocalDateTime registeredAt;
+    private LocalDateTime unRegisteredAt;
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Page {
+        private List<AccountListing> accounts;
+        private Long nextCursor; // 마지막 페이지이면 null
+    }
+}
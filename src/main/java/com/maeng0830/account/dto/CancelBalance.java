@@ -1,6 +1,7 @@
 package com.maeng0830.account.dto;
 
 import com.maeng0830.account.aop.AccountLockIdInterface;
+import com.maeng0830.account.aop.IdempotencyKeyInterface;
 import com.maeng0830.account.type.TransactionResultType;
 import lombok.*;
 
@@ -10,8 +11,9 @@ import java.time.LocalDateTime;
 public class CancelBalance {
     @Getter
     @Setter
+    @NoArgsConstructor
     @AllArgsConstructor
-    public static class Request implements AccountLockIdInterface {
+    public static class Request implements AccountLockIdInterface, IdempotencyKeyInterface {
         @NotNull // Valid의 기준
         private String transactionId;
 
@@ -23,6 +25,13 @@ public class CancelBalance {
         @Min(10) // Valid의 기준
         @Max(1000_000_000)
         private Long amount;
+
+        @Size(max = 64)
+        private String idempotencyKey; // 선택, 재시도 요청에는 처음과 같은 값을 보낸다.
+
+        public Request(String transactionId, String accountNumber, Long amount) {
+            this(transactionId, accountNumber, amount, null);
+        }
     }
 
     @Getter
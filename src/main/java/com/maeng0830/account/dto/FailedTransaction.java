@@ -0,0 +1,20 @@
+package com.maeng0830.account.dto;
+
+import com.maeng0830.account.type.TransactionType;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+// 비동기로 기록할 실패 거래
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class FailedTransaction {
+    private TransactionType transactionType;
+    private String accountNumber;
+    private Long amount;
+    private Long balanceSnapshot; // 실패한 시점의 잔액, 모르면 null(저장 시점의 잔액을 사용)
+    private LocalDateTime transactedAt;
+}
@@ -0,0 +1,36 @@
+package com.maeng0830.account.dto;
+
+import com.maeng0830.account.exception.AccountException;
+import com.maeng0830.account.type.TransactionType;
+import lombok.*;
+
+// 핫 계좌 일괄 처리(HotAccountLedger)의 요청과 결과
+public class LedgerBatch {
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Command {
+        private TransactionType transactionType;
+        private Long userId; // 잔액 사용
+        private String transactionId; // 잔액 사용 취소
+        private Long amount;
+    }
+
+    // 요청 별 처리 결과, 성공하면 transaction, 실패하면 error가 채워진다.
+    @Getter
+    @AllArgsConstructor
+    public static class Result {
+        private TransactionDto transaction;
+        private AccountException error;
+
+        public static Result success(TransactionDto transaction) {
+            return new Result(transaction, null);
+        }
+
+        public static Result failure(AccountException error) {
+            return new Result(null, error);
+        }
+    }
+}
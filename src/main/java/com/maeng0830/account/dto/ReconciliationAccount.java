@@ -0,0 +1,16 @@
+package com.maeng0830.account.dto;
+
+import lombok.*;
+
+// 정산 - 계좌의 초기 잔액과 현재 잔액
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReconciliationAccount {
+    private Long id;
+    private String accountNumber;
+    private Long initialBalance;
+    private Long balance;
+}
@@ -0,0 +1,16 @@
+package com.maeng0830.account.dto;
+
+import com.maeng0830.account.type.TransactionType;
+import lombok.*;
+
+// 정산 - 잔액을 바꾼 성공 거래(S) 한 건
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReconciliationEntry {
+    private Long accountId;
+    private TransactionType transactionType;
+    private Long amount;
+}
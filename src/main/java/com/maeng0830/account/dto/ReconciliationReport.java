@@ -0,0 +1,33 @@
+package com.maeng0830.account.dto;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// 정산 결과
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReconciliationReport {
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private long checkedAccounts;
+    private long mismatchedAccounts;
+    private List<Mismatch> mismatches; // 최대 max-reported-mismatches 건만 담는다.
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    @ToString // 불일치 내역을 로그로 남긴다.
+    public static class Mismatch {
+        private Long accountId;
+        private String accountNumber;
+        private long expectedBalance; // 초기 잔액 - 사용(S) + 사용 취소(S)
+        private long balance;
+    }
+}
@@ -0,0 +1,35 @@
+package com.maeng0830.account.dto;
+
+import com.maeng0830.account.type.TransactionResultType;
+import com.maeng0830.account.type.TransactionType;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// 계좌 별 거래 내역 조회
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TransactionHistory {
+    private Long id;
+    private String transactionId;
+    private TransactionType transactionType;
+    private TransactionResultType transactionResultType;
+    private Long amount;
+    private Long balanceSnapshot;
+    private LocalDateTime transactedAt;
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Page {
+        private String accountNumber;
+        private List<TransactionHistory> transactions;
+        private String nextCursor; // "거래 일시_id", 마지막 페이지이면 null
+    }
+}
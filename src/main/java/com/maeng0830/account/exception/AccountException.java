@@ -11,9 +11,15 @@ import lombok.*;
 public class AccountException extends RuntimeException {
     private ErrorCode errorCode;
     private String errorMessage;
+    private Long balanceSnapshot; // 계좌를 조회한 뒤 실패한 경우, 실패한 시점의 잔액(실패 거래 기록용)
 
     public AccountException(ErrorCode errorCode) {
         this.errorCode = errorCode;
         this.errorMessage = errorCode.getDescription();
     }
+
+    public AccountException(ErrorCode errorCode, Long balanceSnapshot) {
+        this(errorCode);
+        this.balanceSnapshot = balanceSnapshot;
+    }
 }
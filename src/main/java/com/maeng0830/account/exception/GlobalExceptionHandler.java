@@ -2,13 +2,17 @@ package com.maeng0830.account.exception;
 
 import com.maeng0830.account.dto.ErrorResponse;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
+import static com.maeng0830.account.type.ErrorCode.CONCURRENT_BALANCE_UPDATE;
 import static com.maeng0830.account.type.ErrorCode.INTERNAL_SERVER_ERROR;
 import static com.maeng0830.account.type.ErrorCode.INVALID_REQUEST;
+import static com.maeng0830.account.type.ErrorCode.TOO_MANY_TRANSACTION_REQUESTS;
 
 @Slf4j
 @RestControllerAdvice
@@ -34,6 +38,23 @@ public class GlobalExceptionHandler {
         return new ErrorResponse(INVALID_REQUEST, INVALID_REQUEST.getDescription());
     }
 
+    // OPTIMISTIC 모드에서 재시도 횟수를 넘도록 @Version 충돌이 계속된 경우(ObjectOptimisticLockingFailureException)
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ErrorResponse handleOptimisticLockingFailureException(OptimisticLockingFailureException e) {
+        log.error("OptimisticLockingFailureException is occurred.", e);
+
+        return new ErrorResponse(CONCURRENT_BALANCE_UPDATE,
+                CONCURRENT_BALANCE_UPDATE.getDescription());
+    }
+
+    @ExceptionHandler(TaskRejectedException.class)
+    public ErrorResponse handleTaskRejectedException(TaskRejectedException e) {
+        log.error("TaskRejectedException is occurred.", e);
+
+        return new ErrorResponse(TOO_MANY_TRANSACTION_REQUESTS,
+                TOO_MANY_TRANSACTION_REQUESTS.getDescription());
+    }
+
     @ExceptionHandler(Exception.class)
     public ErrorResponse handleException(Exception e) {
         log.error("Exception is occurred.", e);
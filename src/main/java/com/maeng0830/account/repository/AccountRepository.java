@@ -2,21 +2,161 @@ package com.maeng0830.account.repository;
 
 import com.maeng0830.account.domain.Account;
 import com.maeng0830.account.domain.AccountUser;
+import com.maeng0830.account.dto.AccountDto;
+import com.maeng0830.account.dto.AccountListing;
+import com.maeng0830.account.dto.ReconciliationAccount;
+import com.maeng0830.account.dto.ReconciliationReport;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.cfg.AvailableSettings.JPA_LOCK_TIMEOUT;
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
 
 @Repository // Repository 타입으로 Bean 등록
 public interface AccountRepository extends JpaRepository<Account, Long> {
     // Account <- 해당 인터페이스가 활용하게 될 엔티티
     // Long <- 엔티티 PK의 타입
-    Optional<Account> findFirstByOrderByIdDesc();
-
     Integer countByAccountUser(AccountUser accountUser);
 
     Optional<Account> findByAccountNumber(String AccountNumber);
 
-    List<Account> findByAccountUser(AccountUser accountUser);
+    // 계좌 번호와 소유자 id로 계좌 조회, 소유자 id는 account 테이블의 FK 값으로 비교한다.
+    Optional<Account> findByAccountNumberAndAccountUser_Id(String accountNumber, Long userId);
+
+    boolean existsByAccountNumber(String accountNumber);
+
+    // 계좌 번호는 모두 10자리라서 문자열 최대값이 가장 큰 계좌 번호다.
+    @Query("select max(a.accountNumber) from Account a")
+    Optional<String> findMaxAccountNumber();
+
+    // 계좌 행 잠금(SELECT ... FOR UPDATE) - DatabaseLockService
+    // 대기 시간(ms)은 @AccountLock의 기본 대기 시간과 같고, 문장 단위 대기 시간을 지원하지 않는 DB는 DB의 락 타임아웃을 따른다.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = JPA_LOCK_TIMEOUT, value = "1000"))
+    @Query("select a from Account a where a.accountNumber = :accountNumber")
+    Optional<Account> findForUpdateByAccountNumber(@Param("accountNumber") String accountNumber);
+
+    // 계좌 번호로 계좌 id만 조회한다.
+    @Query("select a.id from Account a where a.accountNumber = :accountNumber")
+    Optional<Long> findIdByAccountNumber(@Param("accountNumber") String accountNumber);
+
+    // 사용자의 계좌 목록을 엔티티 대신 AccountDto로 바로 조회한다.
+    // 사용자 id는 account 테이블의 FK 값을 사용하므로 account_user 테이블은 조회하지 않는다.
+    @Query("select new com.maeng0830.account.dto.AccountDto("
+            + "a.accountUser.id, a.accountNumber, a.accountStatus, a.balance,"
+            + " a.registeredAt, a.unRegisteredAt)"
+            + " from Account a where a.accountUser.id = :userId order by a.id")
+    List<AccountDto> findAccountDtosByUserId(@Param("userId") Long userId);
+
+    List<Account> findByAccountNumberIn(Collection<String> accountNumbers);
+
+    // 계좌 목록(keyset 페이지) - id가 커서보다 큰 계좌를 id 순으로 조회한다.
+    // OFFSET을 사용하지 않기 때문에 뒤쪽 페이지도 PK 인덱스로 바로 찾아간다.
+    @Query("select new com.maeng0830.account.dto.AccountListing("
+            + "a.id, a.accountUser.id, a.accountNumber, a.accountStatus, a.balance,"
+            + " a.registeredAt, a.unRegisteredAt)"
+            + " from Account a where a.id > :cursor order by a.id")
+    List<AccountListing> findListingsAfter(@Param("cursor") Long cursor, Pageable pageable);
+
+    @Query("select new com.maeng0830.account.dto.AccountListing("
+            + "a.id, a.accountUser.id, a.accountNumber, a.accountStatus, a.balance,"
+            + " a.registeredAt, a.unRegisteredAt)"
+            + " from Account a where a.id > :cursor and a.accountUser.id in :userIds order by a.id")
+    List<AccountListing> findListingsAfterByUserIds(@Param("cursor") Long cursor,
+                                                    @Param("userIds") Collection<Long> userIds,
+                                                    Pageable pageable);
+
+    // 계좌 목록(스트리밍) - 엔티티 대신 DTO로 조회해서 영속성 컨텍스트에 쌓이지 않고, fetch size 단위로 읽는다.
+    // 반환된 Stream은 트랜잭션 안에서 사용하고 반드시 닫아야 한다.
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HINT_READONLY, value = "true")
+    })
+    @Query("select new com.maeng0830.account.dto.AccountListing("
+            + "a.id, a.accountUser.id, a.accountNumber, a.accountStatus, a.balance,"
+            + " a.registeredAt, a.unRegisteredAt)"
+            + " from Account a order by a.id")
+    Stream<AccountListing> streamAllListings();
+
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HINT_READONLY, value = "true")
+    })
+    @Query("select new com.maeng0830.account.dto.AccountListing("
+            + "a.id, a.accountUser.id, a.accountNumber, a.accountStatus, a.balance,"
+            + " a.registeredAt, a.unRegisteredAt)"
+            + " from Account a where a.accountUser.id in :userIds order by a.id")
+    Stream<AccountListing> streamListingsByUserIds(@Param("userIds") Collection<Long> userIds);
+
+    // 정산 - id 범위의 계좌를 id 순으로 스트리밍한다.
+    // 초기 잔액이 없는 계좌는 정산 기준이 없으므로 제외한다.
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HINT_READONLY, value = "true")
+    })
+    @Query("select new com.maeng0830.account.dto.ReconciliationAccount("
+            + "a.id, a.accountNumber, a.initialBalance, a.balance)"
+            + " from Account a where a.id between :fromId and :toId"
+            + " and a.initialBalance is not null order by a.id")
+    Stream<ReconciliationAccount> streamReconciliationAccounts(@Param("fromId") Long fromId,
+                                                               @Param("toId") Long toId);
+
+    // 정산 재확인 - 계좌의 잔액과 성공 거래(S)로 계산한 잔액을 한 문장으로 조회한다.
+    // 두 값을 따로 조회하면 사이에 커밋된 거래 때문에 맞는 잔액도 불일치로 보일 수 있다.
+    @Query("select new com.maeng0830.account.dto.ReconciliationReport$Mismatch("
+            + "a.id, a.accountNumber, a.initialBalance + (select coalesce(sum(case"
+            + " when t.transactionType = com.maeng0830.account.type.TransactionType.USE then -t.amount"
+            + " else t.amount end), 0)"
+            + " from Transaction t where t.account = a"
+            + " and t.transactionResultType = com.maeng0830.account.type.TransactionResultType.S),"
+            + " a.balance)"
+            + " from Account a where a.id = :accountId and a.initialBalance is not null")
+    Optional<ReconciliationReport.Mismatch> findReconciliationBalance(@Param("accountId") Long accountId);
+
+    @Query("select min(a.id) from Account a")
+    Long findMinId();
+
+    @Query("select max(a.id) from Account a")
+    Long findMaxId();
+
+    long countByInitialBalanceNotNull();
+
+    // 기록된 fencing token이 없거나 더 오래된 경우에만 갱신, 변경된 행 수를 반환한다.
+    // 비교와 기록이 한 문장이라 만료된 락을 가진 요청이 먼저 읽은 값으로 덮어쓸 수 없고,
+    // 갱신한 행은 커밋할 때까지 잠겨 있어서 다른 락 보유자의 UPDATE는 커밋 이후의 값으로 비교된다.
+    @Modifying(clearAutomatically = true)
+    @Query("update Account a set a.lastFencingToken = :fencingToken"
+            + " where a.accountNumber = :accountNumber"
+            + " and (a.lastFencingToken is null or a.lastFencingToken <= :fencingToken)")
+    int updateFencingTokenIfNotStale(@Param("accountNumber") String accountNumber,
+                                     @Param("fencingToken") Long fencingToken);
+
+    // 사용 중인 계좌이고 잔액이 충분한 경우에만 차감, 변경된 행 수를 반환한다.
+    @Modifying(clearAutomatically = true)
+    @Query("update Account a set a.balance = a.balance - :amount, a.version = a.version + 1"
+            + " where a.accountNumber = :accountNumber"
+            + " and a.accountStatus = com.maeng0830.account.type.AccountStatus.IN_USE"
+            + " and a.balance >= :amount")
+    int decreaseBalanceIfEnough(@Param("accountNumber") String accountNumber,
+                                @Param("amount") Long amount);
+
+    @Modifying(clearAutomatically = true)
+    @Query("update Account a set a.balance = a.balance + :amount, a.version = a.version + 1"
+            + " where a.accountNumber = :accountNumber")
+    int increaseBalance(@Param("accountNumber") String accountNumber,
+                        @Param("amount") Long amount);
 }
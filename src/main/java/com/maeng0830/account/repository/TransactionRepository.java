@@ -1,15 +1,73 @@
 package com.maeng0830.account.repository;
 
-import com.maeng0830.account.domain.Account;
-import com.maeng0830.account.domain.AccountUser;
 import com.maeng0830.account.domain.Transaction;
+import com.maeng0830.account.dto.ReconciliationEntry;
+import com.maeng0830.account.dto.TransactionHistory;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
 
 @Repository // Repository 타입으로 Bean 등록
 public interface TransactionRepository extends JpaRepository<Transaction, Long> {
-    Optional<Transaction> findByTransactionId(String transactionId);
+    // TransactionDto 변환에 계좌 번호가 필요하므로 계좌를 함께 조회한다.
+    // @EntityGraph를 붙인 메서드 이름 쿼리는 호출마다 Criteria 쿼리를 새로 만들어서, 조회 비용이 인덱스 탐색보다 훨씬 크다(LookupScalingBenchmark).
+    @Query("select t from Transaction t join fetch t.account where t.transactionId = :transactionId")
+    Optional<Transaction> findByTransactionId(@Param("transactionId") String transactionId);
+
+    // 계좌 별 거래 내역 - 최신 거래부터 (거래 일시, id)가 커서보다 작은 거래를 조회한다.
+    // (account_id, transacted_at desc, id desc) 인덱스에서 커서 위치부터 정렬된 순서대로 읽기 때문에,
+    // 페이지 깊이와 관계없이 조회 비용이 같다. 정렬 조건을 인덱스 컬럼 순서와 맞춰야 별도의 정렬을 하지 않는다.
+    @Query("select new com.maeng0830.account.dto.TransactionHistory("
+            + "t.id, t.transactionId, t.transactionType, t.transactionResultType,"
+            + " t.amount, t.balanceSnapshot, t.transactedAt)"
+            + " from Transaction t"
+            + " where t.account.id = :accountId"
+            + " and t.transactedAt <= :cursorAt and (t.transactedAt < :cursorAt or t.id < :cursorId)"
+            + " order by t.account.id, t.transactedAt desc, t.id desc")
+    List<TransactionHistory> findHistory(@Param("accountId") Long accountId,
+                                         @Param("cursorAt") LocalDateTime cursorAt,
+                                         @Param("cursorId") Long cursorId,
+                                         Pageable pageable);
+
+    // 계좌 별 거래 내역(조회 기간의 시작 지정) - 조회 기간의 시작(from)을 인덱스 탐색 범위의 하한으로 사용한다.
+    // 마지막 페이지처럼 페이지를 채우지 못하는 경우에도 from 이전의 거래는 읽지 않는다.
+    // from을 "is null or" 조건으로 합치면 범위로 사용되지 않고 필터가 되기 때문에 쿼리를 나눈다.
+    @Query("select new com.maeng0830.account.dto.TransactionHistory("
+            + "t.id, t.transactionId, t.transactionType, t.transactionResultType,"
+            + " t.amount, t.balanceSnapshot, t.transactedAt)"
+            + " from Transaction t"
+            + " where t.account.id = :accountId"
+            + " and t.transactedAt >= :from"
+            + " and t.transactedAt <= :cursorAt and (t.transactedAt < :cursorAt or t.id < :cursorId)"
+            + " order by t.account.id, t.transactedAt desc, t.id desc")
+    List<TransactionHistory> findHistorySince(@Param("accountId") Long accountId,
+                                              @Param("cursorAt") LocalDateTime cursorAt,
+                                              @Param("cursorId") Long cursorId,
+                                              @Param("from") LocalDateTime from,
+                                              Pageable pageable);
+
+    // 정산 - id 범위 계좌들의 성공 거래(S)를 계좌 id 순으로 스트리밍한다.
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HINT_READONLY, value = "true")
+    })
+    @Query("select new com.maeng0830.account.dto.ReconciliationEntry("
+            + "t.account.id, t.transactionType, t.amount)"
+            + " from Transaction t where t.account.id between :fromId and :toId"
+            + " and t.transactionResultType = com.maeng0830.account.type.TransactionResultType.S"
+            + " order by t.account.id")
+    Stream<ReconciliationEntry> streamReconciliationEntries(@Param("fromId") Long fromId,
+                                                            @Param("toId") Long toId);
 }
@@ -0,0 +1,77 @@
+package com.maeng0830.account.service;
+
+import com.maeng0830.account.exception.AccountException;
+import com.maeng0830.account.type.ErrorCode;
+import com.maeng0830.account.type.LockMode;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+// 락 구현체 공통 - 락 대기 시간, 보유 시간, 실패 사유를 구현체와 상관없이 같은 메트릭으로 기록한다.
+@Slf4j
+public abstract class AbstractLockService implements LockService {
+    private static final String WAIT_METRIC = "account.lock.wait";
+    private static final String HOLD_METRIC = "account.lock.hold";
+    private static final String FAILURE_METRIC = "account.lock.failures";
+
+    private final MeterRegistry meterRegistry;
+    private final LockMode lockMode;
+
+    // 락 보유 시간 측정용, 계좌 당 락을 가진 스레드는 하나뿐이라 계좌 번호를 키로 쓴다.
+    private final Map<String, Long> acquiredAt = new ConcurrentHashMap<>();
+
+    protected AbstractLockService(MeterRegistry meterRegistry, LockMode lockMode) {
+        this.meterRegistry = meterRegistry;
+        this.lockMode = lockMode;
+    }
+
+    @Override
+    public Long lock(String accountNumber, long waitTimeMillis, long leaseTimeMillis) {
+        log.debug("Trying lock for accountNumber : {}", accountNumber);
+        long startedAt = System.nanoTime();
+        try {
+            Long fencingToken = acquire(accountNumber, waitTimeMillis, leaseTimeMillis);
+            long now = System.nanoTime();
+            acquiredAt.put(accountNumber, now);
+            recordWait("acquired", now - startedAt);
+            return fencingToken;
+        } catch (AccountException e) {
+            recordWait("failed", System.nanoTime() - startedAt);
+            throw e;
+        }
+    }
+
+    @Override
+    public void unlock(String accountNumber) {
+        log.debug("Unlock for accountNumber : {} ", accountNumber);
+        Long lockedAt = acquiredAt.remove(accountNumber);
+        if (lockedAt != null) {
+            meterRegistry.timer(HOLD_METRIC, "mode", lockMode.name())
+                    .record(System.nanoTime() - lockedAt, TimeUnit.NANOSECONDS);
+        }
+
+        release(accountNumber);
+    }
+
+    // 락을 얻지 못하면 lockFailure(reason)을 던진다.
+    protected abstract Long acquire(String accountNumber, long waitTimeMillis, long leaseTimeMillis);
+
+    protected abstract void release(String accountNumber);
+
+    protected AccountException lockFailure(String reason) {
+        countFailure(reason);
+        return new AccountException(ErrorCode.ACCOUNT_TRANSACTION_LOCK);
+    }
+
+    protected void countFailure(String reason) {
+        meterRegistry.counter(FAILURE_METRIC, "reason", reason).increment();
+    }
+
+    private void recordWait(String result, long elapsedNanos) {
+        meterRegistry.timer(WAIT_METRIC, "mode", lockMode.name(), "result", result)
+                .record(elapsedNanos, TimeUnit.NANOSECONDS);
+    }
+}
@@ -0,0 +1,41 @@
+package com.maeng0830.account.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+// 사용자별 계좌 목록 캐시(accountsByUser)의 무효화를 담당한다.
+@Component
+@RequiredArgsConstructor
+public class AccountCache {
+    public static final String ACCOUNTS_BY_USER = "accountsByUser";
+
+    private final CacheManager cacheManager;
+
+    // 잔액이나 계좌 상태가 바뀐 사용자의 계좌 목록을 캐시에서 제거한다.
+    // 커밋 전에 제거하면 다른 요청이 커밋 전 값을 다시 캐시에 올릴 수 있으므로, 트랜잭션 안에서는 커밋 이후에 제거한다.
+    // 롤백되면 DB 값이 그대로이므로 제거하지 않는다.
+    // 커밋 전에 조회를 시작한 요청은 제거 이후에 커밋 전 값을 캐시에 올릴 수 있다. 이 값은 expire-after-write(기본 60초)가 지나면 제거되므로,
+    // 계좌 목록은 변경이 커밋된 뒤 최대 expire-after-write 동안 이전 값을 반환할 수 있다.
+    public void evictAccountsByUser(Long userId) {
+        Cache cache = cacheManager.getCache(ACCOUNTS_BY_USER);
+        if (cache == null || userId == null) {
+            return;
+        }
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            cache.evict(userId);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                cache.evict(userId);
+            }
+        });
+    }
+}
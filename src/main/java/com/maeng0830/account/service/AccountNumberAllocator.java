@@ -0,0 +1,7 @@
+package com.maeng0830.account.service;
+
+// 신규 계좌 번호 발급기
+// 구현체는 동시에 호출되어도 중복되지 않는 10자리 계좌 번호를 반환해야 한다.
+public interface AccountNumberAllocator {
+    String allocate();
+}
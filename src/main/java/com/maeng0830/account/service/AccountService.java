@@ -3,18 +3,24 @@ package com.maeng0830.account.service;
 import com.maeng0830.account.domain.Account;
 import com.maeng0830.account.domain.AccountUser;
 import com.maeng0830.account.dto.AccountDto;
+import com.maeng0830.account.dto.AccountListing;
 import com.maeng0830.account.exception.AccountException;
 import com.maeng0830.account.repository.AccountRepository;
 import com.maeng0830.account.repository.AccountUserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
 import javax.transaction.Transactional;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Objects;
-import java.util.stream.Collectors;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
+import static com.maeng0830.account.service.AccountCache.ACCOUNTS_BY_USER;
 import static com.maeng0830.account.type.AccountStatus.IN_USE;
 import static com.maeng0830.account.type.AccountStatus.UNREGISTERED;
 import static com.maeng0830.account.type.ErrorCode.*;
@@ -24,6 +30,10 @@ import static com.maeng0830.account.type.ErrorCode.*;
 public class AccountService {
     private final AccountRepository accountRepository; // final <- 무조건 생성자로 값을 대입해줘야하는 필드, Required
     private final AccountUserRepository accountUserRepository;
+    private final AccountNumberAllocator accountNumberAllocator;
+    private final AccountCache accountCache;
+
+    private static final int MAX_LISTING_PAGE_SIZE = 1000;
 
     // 계좌 생성
     @Transactional
@@ -35,9 +45,9 @@ public class AccountService {
         // 사용자 당 계좌 개수 확인(최대 10개)
         validateCreateAccount(accountUser);
 
-        String newAccountNumber = accountRepository.findFirstByOrderByIdDesc()
-                .map(account -> (Integer.parseInt(account.getAccountNumber())) + 1 + "")
-                .orElse("1000000000");
+        String newAccountNumber = accountNumberAllocator.allocate();
+
+        accountCache.evictAccountsByUser(accountUser.getId());
 
         return AccountDto.fromEntity(accountRepository.save(
                 Account.builder()
@@ -45,6 +55,7 @@ public class AccountService {
                         .accountStatus(IN_USE)
                         .accountNumber(newAccountNumber)
                         .balance(initialBalance)
+                        .initialBalance(initialBalance)
                         .registeredAt(LocalDateTime.now())
                         .build()
         ));
@@ -58,11 +69,12 @@ public class AccountService {
     }
 
     @Transactional
-    public Account getAccount(Long id) {
+    public AccountDto getAccount(Long id) {
         if (id < 0) {
             throw new RuntimeException("Minus");
         }
-        return accountRepository.findById(id).get();
+        return AccountDto.fromEntity(accountRepository.findById(id)
+                .orElseThrow(() -> new AccountException(ACCOUNT_NOT_FOUND)));
     }
 
     // 계좌 해지
@@ -84,6 +96,8 @@ public class AccountService {
 
         accountRepository.save(account);
 
+        accountCache.evictAccountsByUser(accountUser.getId());
+
         return AccountDto.fromEntity(account);
     }
 
@@ -105,17 +119,52 @@ public class AccountService {
         }
     }
 
+    // 계좌 목록 조회(keyset 페이지)
+    // 사용자 id 목록이 비어 있으면 전체 계좌를 조회한다.
+    @Transactional
+    public AccountListing.Page getAccountListings(Long cursor, int size, List<Long> userIds) {
+        Long after = cursor == null ? 0L : cursor;
+        Pageable pageable = PageRequest.of(0, Math.min(Math.max(size, 1), MAX_LISTING_PAGE_SIZE));
+
+        List<AccountListing> accounts = isEmpty(userIds)
+                ? accountRepository.findListingsAfter(after, pageable)
+                : accountRepository.findListingsAfterByUserIds(after, userIds, pageable);
+
+        return AccountListing.Page.builder()
+                .accounts(accounts)
+                .nextCursor(accounts.size() < pageable.getPageSize()
+                        ? null : accounts.get(accounts.size() - 1).getId())
+                .build();
+    }
+
+    // 계좌 내보내기(스트리밍)
+    // 조회한 계좌를 하나씩 consumer에 넘기기 때문에, 계좌 수와 관계없이 fetch size 만큼만 메모리를 사용한다.
+    @Transactional
+    public void exportAccounts(List<Long> userIds, Consumer<AccountListing> consumer) {
+        try (Stream<AccountListing> accounts = isEmpty(userIds)
+                ? accountRepository.streamAllListings()
+                : accountRepository.streamListingsByUserIds(userIds)) {
+            accounts.forEach(consumer);
+        }
+    }
+
+    private boolean isEmpty(List<Long> userIds) {
+        return userIds == null || userIds.isEmpty();
+    }
+
     // 사용자의 계좌 확인
+    // 결과는 사용자 id 별로 캐시되고, 계좌 생성/해지와 잔액 변경이 커밋되면 제거된다.
+    // 커밋과 겹친 조회가 이전 값을 다시 캐시에 올리면 최대 expire-after-write 동안 이전 값을 반환한다(AccountCache).
+    @Cacheable(cacheNames = ACCOUNTS_BY_USER, key = "#userId")
     @Transactional
     public List<AccountDto> getAccountsByUserId(Long userId) {
-        // 사용자가 없는 경우
-        AccountUser accountUser = accountUserRepository.findById(userId)
-                .orElseThrow(() -> new AccountException(USER_NOT_FOUND));
+        List<AccountDto> accounts = accountRepository.findAccountDtosByUserId(userId);
 
-        List<Account> accounts = accountRepository.findByAccountUser(accountUser);
+        // 사용자가 없는 경우 - 계좌가 하나도 없을 때만 사용자를 조회한다.
+        if (accounts.isEmpty() && !accountUserRepository.existsById(userId)) {
+            throw new AccountException(USER_NOT_FOUND);
+        }
 
-        return accounts.stream()
-                .map(AccountDto::fromEntity)
-                .collect(Collectors.toList());
+        return accounts;
     }
 }
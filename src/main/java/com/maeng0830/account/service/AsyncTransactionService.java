@@ -0,0 +1,49 @@
+package com.maeng0830.account.service;
+
+import com.maeng0830.account.aop.AccountLock;
+import com.maeng0830.account.aop.Idempotent;
+import com.maeng0830.account.dto.UseBalance;
+import com.maeng0830.account.exception.AccountException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.CompletableFuture;
+
+import static com.maeng0830.account.type.TransactionType.USE;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AsyncTransactionService {
+    private final TransactionService transactionService;
+    private final FailedTransactionRecorder failedTransactionRecorder;
+    private final HotAccountLedger hotAccountLedger;
+
+    // 잔액 사용(비동기)
+    // @Async가 먼저 적용되기 때문에 멱등 키 확인, 계좌 락 획득과 DB 작업은 모두 transactionTaskExecutor 스레드에서 실행된다.
+    // 동기 사용(TransactionController.useBalance)과 메서드 이름, 응답 형식이 같아서 멱등 키를 함께 쓴다.
+    // 같은 키로 두 경로에 재시도해도 한 번만 처리된다.
+    @Async("transactionTaskExecutor")
+    @Idempotent
+    @AccountLock
+    public CompletableFuture<UseBalance.Response> useBalance(UseBalance.Request request) {
+        try {
+            if (hotAccountLedger.isHotAccount(request.getAccountNumber())) {
+                return CompletableFuture.completedFuture(UseBalance.Response.from(hotAccountLedger.useBalance(
+                        request.getUserId(), request.getAccountNumber(), request.getAmount())));
+            }
+
+            return CompletableFuture.completedFuture(UseBalance.Response.from(transactionService.useBalance(
+                    request.getUserId(), request.getAccountNumber(), request.getAmount())));
+        } catch (AccountException e) {
+            log.error("Failed to use balance.");
+            failedTransactionRecorder.record(
+                    USE, request.getAccountNumber(), request.getAmount(), e.getBalanceSnapshot()
+            );
+
+            throw e;
+        }
+    }
+}
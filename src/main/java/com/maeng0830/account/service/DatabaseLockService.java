@@ -0,0 +1,95 @@
+package com.maeng0830.account.service;
+
+import com.maeng0830.account.repository.AccountRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+import static com.maeng0830.account.type.LockMode.DATABASE;
+
+// 계좌 행 잠금(SELECT ... FOR UPDATE), Redis 없이 여러 인스턴스 사이에서 계좌 변경을 직렬화한다.
+// 행 잠금은 트랜잭션이 끝나야 풀리기 때문에 lock에서 트랜잭션을 시작하고 unlock에서 커밋한다.
+// 락을 잡은 뒤 실행되는 @Transactional 메서드는 이 트랜잭션에 참여하므로, 잔액 변경도 unlock 시점에 커밋된다.
+// 대기 시간은 AccountRepository.findForUpdateByAccountNumber의 javax.persistence.lock.timeout 힌트(@AccountLock 기본값과 같은 1000ms)를 따르고,
+// 문장 단위 대기 시간을 지원하지 않는 DB는 DB의 락 타임아웃(H2 LOCK_TIMEOUT, MySQL innodb_lock_wait_timeout)을 따른다.
+// 힌트는 고정 값이므로 waitTime과 leaseTime은 사용하지 않는다.
+@Slf4j
+public class DatabaseLockService extends AbstractLockService {
+    private static final TransactionDefinition LOCK_TRANSACTION =
+            new DefaultTransactionDefinition(TransactionDefinition.PROPAGATION_REQUIRED);
+    // 계좌가 없어서 트랜잭션을 바로 끝낸 lock 호출
+    private static final TransactionStatus NOT_LOCKED = new SimpleTransactionStatus(false);
+
+    private final AccountRepository accountRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    // 트랜잭션은 lock을 호출한 스레드에 묶여 있으므로 스레드 별로 lock 순서대로 쌓고, unlock에서 역순으로 꺼낸다.
+    private final ThreadLocal<Deque<TransactionStatus>> transactions = ThreadLocal.withInitial(ArrayDeque::new);
+
+    public DatabaseLockService(AccountRepository accountRepository,
+                               PlatformTransactionManager transactionManager,
+                               MeterRegistry meterRegistry) {
+        super(meterRegistry, DATABASE);
+        this.accountRepository = accountRepository;
+        this.transactionManager = transactionManager;
+    }
+
+    // 계좌가 없으면 잠글 행이 없으므로 트랜잭션을 바로 롤백하고 진행한다(이후 ACCOUNT_NOT_FOUND).
+    @Override
+    protected Long acquire(String accountNumber, long waitTimeMillis, long leaseTimeMillis) {
+        TransactionStatus status = transactionManager.getTransaction(LOCK_TRANSACTION);
+        boolean locked;
+        try {
+            locked = accountRepository.findForUpdateByAccountNumber(accountNumber).isPresent();
+        } catch (PessimisticLockingFailureException e) {
+            rollbackAfterTimeout(status);
+            log.error("================Row lock acquisition failed=========");
+            throw lockFailure("database_timeout");
+        } catch (RuntimeException e) {
+            transactionManager.rollback(status);
+            throw e;
+        }
+
+        if (!locked) {
+            transactionManager.rollback(status);
+            status = NOT_LOCKED;
+        }
+        transactions.get().push(status);
+        return null;
+    }
+
+    // HikariCP는 락 타임아웃(SQLTimeoutException)을 끊긴 커넥션으로 보고 닫기 때문에 롤백이 실패할 수 있다.
+    // 롤백이 실패해도 트랜잭션 자원은 정리되므로 락 실패로 처리한다.
+    private void rollbackAfterTimeout(TransactionStatus status) {
+        try {
+            transactionManager.rollback(status);
+        } catch (TransactionException e) {
+            log.warn("Rollback after row lock timeout failed : {}", e.getMessage());
+        }
+    }
+
+    // 락을 잡은 뒤 실행한 작업이 실패해서 rollback-only가 된 경우 commit은 롤백한 뒤 UnexpectedRollbackException을 던진다.
+    // 실패를 잡고 진행한 호출자(재시도 등)가 반영되지 않은 작업을 성공으로 처리하지 않도록 예외를 그대로 전달한다.
+    @Override
+    protected void release(String accountNumber) {
+        Deque<TransactionStatus> held = transactions.get();
+        TransactionStatus status = held.poll();
+        if (held.isEmpty()) {
+            transactions.remove();
+        }
+        if (status == null || status == NOT_LOCKED) {
+            return;
+        }
+
+        transactionManager.commit(status);
+    }
+}
@@ -0,0 +1,139 @@
+package com.maeng0830.account.service;
+
+import com.maeng0830.account.dto.FailedTransaction;
+import com.maeng0830.account.type.TransactionType;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// 실패 거래(F)를 메모리 큐에 쌓아두고, 백그라운드 스레드가 모아서 한 번에 저장한다.
+// record()는 계좌 락을 잡은 요청 스레드에서 호출되므로 DB를 조회하거나 기다리지 않는다.
+// 큐가 가득 찼거나 종료된 이후의 실패 거래는 버리고 dropped로 센다.
+// 잔액 스냅샷은 실패한 서비스 호출이 예외에 담아 넘긴 값을 사용한다(AccountException.balanceSnapshot).
+@Slf4j
+@Component
+public class FailedTransactionRecorder {
+    private static final long POLL_TIMEOUT_MILLIS = 100L;
+    private static final long SHUTDOWN_TIMEOUT_MILLIS = 10_000L;
+
+    private final TransactionService transactionService;
+    private final BlockingQueue<FailedTransaction> queue;
+    private final int batchSize;
+    private final AtomicLong droppedCount = new AtomicLong();
+    private final Thread writer = new Thread(this::writeLoop, "failed-transaction-writer");
+
+    private volatile boolean running = true;
+
+    public FailedTransactionRecorder(
+            TransactionService transactionService,
+            MeterRegistry meterRegistry,
+            @Value("${account.failed-transaction.queue-capacity:10000}") int queueCapacity,
+            @Value("${account.failed-transaction.batch-size:100}") int batchSize) {
+        this.transactionService = transactionService;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+
+        Gauge.builder("account.failed.transaction.queue.depth", queue, BlockingQueue::size)
+                .description("Failed transactions waiting to be written")
+                .register(meterRegistry);
+        FunctionCounter.builder("account.failed.transaction.dropped", droppedCount, AtomicLong::get)
+                .description("Failed transactions dropped because the queue was full, the recorder was stopped or the write failed")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    // balanceSnapshot은 실패한 시점의 잔액, 계좌를 조회하기 전에 실패해서 모르면 null(저장 시점의 잔액을 사용)
+    public void record(TransactionType transactionType, String accountNumber,
+                       Long amount, Long balanceSnapshot) {
+        if (!running) {
+            drop(accountNumber, "Failed transaction recorder is stopped.");
+            return;
+        }
+
+        FailedTransaction failedTransaction = FailedTransaction.builder()
+                .transactionType(transactionType)
+                .accountNumber(accountNumber)
+                .amount(amount)
+                .balanceSnapshot(balanceSnapshot)
+                .transactedAt(LocalDateTime.now())
+                .build();
+
+        if (!queue.offer(failedTransaction)) {
+            drop(accountNumber, "Failed transaction queue is full.");
+            return;
+        }
+        // shutdown()과 동시에 들어온 거래는 writer가 이미 종료되어 저장되지 않을 수 있으므로 큐에서 꺼내고 버린다.
+        // 꺼내지 못했다면 writer가 가져가서 저장한다.
+        if (!running && queue.remove(failedTransaction)) {
+            drop(accountNumber, "Failed transaction recorder is stopped.");
+        }
+    }
+
+    private void drop(String accountNumber, String reason) {
+        droppedCount.incrementAndGet();
+        log.error("{} accountNumber : {}", reason, accountNumber);
+    }
+
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    // 애플리케이션 종료 시 큐에 남은 실패 거래를 모두 저장한 뒤 종료한다.
+    // 저장 중인 배치가 중단되지 않도록 인터럽트하지 않고, poll 타임아웃 이후에 종료된다.
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        writer.join(SHUTDOWN_TIMEOUT_MILLIS);
+    }
+
+    private void writeLoop() {
+        List<FailedTransaction> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                FailedTransaction first = queue.poll(POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+            } catch (InterruptedException e) {
+                // 큐에 남은 거래가 버려지지 않도록 인터럽트로는 종료하지 않는다(shutdown()의 running으로 종료).
+                continue;
+            }
+
+            queue.drainTo(batch, batchSize - 1);
+            write(batch);
+            batch.clear();
+        }
+    }
+
+    private void write(List<FailedTransaction> batch) {
+        try {
+            transactionService.saveFailedTransactions(batch);
+        } catch (Exception e) {
+            droppedCount.addAndGet(batch.size());
+            log.error("Failed to save {} failed transactions.", batch.size(), e);
+        }
+    }
+}
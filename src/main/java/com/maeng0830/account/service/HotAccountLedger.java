@@ -0,0 +1,305 @@
+package com.maeng0830.account.service;
+
+import com.maeng0830.account.aop.AccountLockContext;
+import com.maeng0830.account.dto.LedgerBatch;
+import com.maeng0830.account.dto.TransactionDto;
+import com.maeng0830.account.exception.AccountException;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static com.maeng0830.account.type.ErrorCode.ACCOUNT_TRANSACTION_LOCK;
+import static com.maeng0830.account.type.ErrorCode.TOO_MANY_TRANSACTION_REQUESTS;
+import static com.maeng0830.account.type.ErrorCode.TRANSACTION_PROCESSOR_STOPPED;
+import static com.maeng0830.account.type.ErrorCode.TRANSACTION_REQUEST_TIMEOUT;
+import static com.maeng0830.account.type.TransactionResultType.F;
+import static com.maeng0830.account.type.TransactionResultType.S;
+import static com.maeng0830.account.type.TransactionType.CANCEL;
+import static com.maeng0830.account.type.TransactionType.USE;
+
+// 핫 계좌 전용 잔액 처리기
+// 설정된 계좌마다 요청 큐와 전용 스레드를 하나씩 두고, 쌓인 요청을 모아서 한 번의 계좌 락과 한 번의 DB 트랜잭션으로 처리한다.
+// 요청한 스레드는 자신의 요청 결과(성공 거래 또는 AccountException)만 받는다.
+@Slf4j
+@Component
+public class HotAccountLedger {
+    private static final long POLL_TIMEOUT_MILLIS = 100L;
+    private static final long SHUTDOWN_TIMEOUT_MILLIS = 10_000L;
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final TransactionService transactionService;
+    private final LockService lockService;
+    private final MeterRegistry meterRegistry;
+    private final DistributionSummary batchSizeSummary;
+    private final int maxBatchSize;
+    private final long lockWaitMillis;
+    private final long awaitTimeoutMillis;
+    private final Map<String, Worker> workers;
+
+    public HotAccountLedger(
+            TransactionService transactionService,
+            LockService lockService,
+            MeterRegistry meterRegistry,
+            @Value("${account.ledger.hot-accounts:}") Set<String> hotAccounts,
+            @Value("${account.ledger.queue-capacity:10000}") int queueCapacity,
+            @Value("${account.ledger.max-batch-size:200}") int maxBatchSize,
+            @Value("${account.ledger.lock-wait:1000}") long lockWaitMillis,
+            @Value("${account.ledger.await-timeout:5000}") long awaitTimeoutMillis) {
+        this.transactionService = transactionService;
+        this.lockService = lockService;
+        this.meterRegistry = meterRegistry;
+        this.batchSizeSummary = DistributionSummary.builder("account.ledger.batch.size")
+                .register(meterRegistry);
+        this.maxBatchSize = maxBatchSize;
+        this.lockWaitMillis = lockWaitMillis;
+        this.awaitTimeoutMillis = awaitTimeoutMillis;
+
+        Map<String, Worker> workers = new HashMap<>();
+        for (String accountNumber : hotAccounts) {
+            if (!accountNumber.trim().isEmpty()) {
+                workers.put(accountNumber.trim(), new Worker(accountNumber.trim(), queueCapacity));
+            }
+        }
+        this.workers = Collections.unmodifiableMap(workers);
+    }
+
+    @PostConstruct
+    public void start() {
+        workers.values().forEach(Worker::start);
+    }
+
+    // 애플리케이션 종료 시 큐에 남은 요청을 모두 처리한 뒤 종료한다.
+    // 종료 이후의 요청은 받지 않고, 제한 시간 안에 처리하지 못한 요청은 실패시킨다.
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        for (Worker worker : workers.values()) {
+            worker.stop();
+        }
+    }
+
+    public boolean isHotAccount(String accountNumber) {
+        return workers.containsKey(accountNumber);
+    }
+
+    // 잔액 사용
+    public TransactionDto useBalance(Long userId, String accountNumber, Long amount) {
+        return submit(accountNumber, LedgerBatch.Command.builder()
+                .transactionType(USE)
+                .userId(userId)
+                .amount(amount)
+                .build());
+    }
+
+    // 잔액 사용 취소
+    public TransactionDto cancelBalance(String transactionId, String accountNumber, Long amount) {
+        return submit(accountNumber, LedgerBatch.Command.builder()
+                .transactionType(CANCEL)
+                .transactionId(transactionId)
+                .amount(amount)
+                .build());
+    }
+
+    private TransactionDto submit(String accountNumber, LedgerBatch.Command command) {
+        Worker worker = workers.get(accountNumber);
+        if (worker == null) {
+            throw new IllegalArgumentException("Not a hot account : " + accountNumber);
+        }
+        if (!worker.running) {
+            throw new AccountException(TRANSACTION_PROCESSOR_STOPPED);
+        }
+
+        PendingCommand pending = new PendingCommand(command);
+        if (!worker.queue.offer(pending)) {
+            throw new AccountException(TOO_MANY_TRANSACTION_REQUESTS);
+        }
+        // stop()과 동시에 들어온 요청은 worker가 이미 종료되어 처리되지 않을 수 있으므로 큐에서 꺼내고 실패시킨다.
+        // 꺼내지 못했다면 worker나 stop()이 가져가서 결과를 전달한다.
+        if (!worker.running && worker.queue.remove(pending)) {
+            throw new AccountException(TRANSACTION_PROCESSOR_STOPPED);
+        }
+        return await(worker, pending);
+    }
+
+    // 큐에서 기다리는 동안 제한 시간이 지나면 요청을 꺼내고 실패시킨다(반영되지 않음).
+    // 이미 배치에 포함된 요청은 반영될 수 있으므로 제한 시간과 관계없이 결과를 기다린다.
+    // 배치는 락 대기(lock-wait)와 DB 트랜잭션 시간 안에 끝나므로 무한히 기다리지 않는다.
+    private TransactionDto await(Worker worker, PendingCommand pending) {
+        try {
+            return pending.future.get(awaitTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            throw unwrap(e.getCause());
+        } catch (TimeoutException | InterruptedException e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            if (worker.queue.remove(pending)) {
+                throw new AccountException(TRANSACTION_REQUEST_TIMEOUT);
+            }
+            log.warn("Waiting for a ledger command in progress beyond {} ms, accountNumber : {}",
+                    awaitTimeoutMillis, worker.accountNumber);
+            try {
+                return pending.future.join();
+            } catch (CompletionException completionException) {
+                throw unwrap(completionException.getCause());
+            }
+        }
+    }
+
+    private static RuntimeException unwrap(Throwable cause) {
+        if (cause instanceof RuntimeException) {
+            return (RuntimeException) cause;
+        }
+        if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+        return new CompletionException(cause);
+    }
+
+    // 한 번의 배치 처리, 배치 전체가 실패하면 모든 요청에 같은 예외를 전달한다.
+    // Error도 잡아서 요청에 전달해야 worker 스레드가 종료되지 않고, 요청이 결과를 기다리며 멈추지 않는다.
+    private void process(String accountNumber, List<PendingCommand> batch) {
+        List<LedgerBatch.Command> commands = new ArrayList<>(batch.size());
+        batch.forEach(pending -> commands.add(pending.command));
+        batchSizeSummary.record(batch.size());
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String batchResult = S.name();
+        try {
+            List<LedgerBatch.Result> results = applyWithLock(accountNumber, commands);
+            for (int i = 0; i < batch.size(); i++) {
+                LedgerBatch.Result result = results.get(i);
+                if (result.getError() != null) {
+                    batch.get(i).future.completeExceptionally(result.getError());
+                } else {
+                    batch.get(i).future.complete(result.getTransaction());
+                }
+            }
+        } catch (Throwable e) {
+            log.error("Failed to apply {} ledger commands for accountNumber : {}",
+                    batch.size(), accountNumber, e);
+            batch.forEach(pending -> pending.future.completeExceptionally(e));
+            batchResult = F.name();
+        } finally {
+            sample.stop(meterRegistry.timer("account.ledger.batch", "result", batchResult));
+        }
+    }
+
+    // 배치 당 계좌 락은 한 번만 잡는다.
+    // 락을 잡지 않는 경로(일괄 사용, 조건부 UPDATE)와 @Version 충돌이 나면 배치를 다시 적용한다.
+    private List<LedgerBatch.Result> applyWithLock(String accountNumber,
+                                                   List<LedgerBatch.Command> commands) {
+        Long fencingToken = lockService.lock(accountNumber, lockWaitMillis, -1L);
+        AccountLockContext.setFencingToken(fencingToken);
+        RuntimeException failure = null;
+        try {
+            for (int attempt = 1; ; attempt++) {
+                try {
+                    return transactionService.applyLedgerBatch(accountNumber, commands);
+                } catch (OptimisticLockingFailureException e) {
+                    if (attempt >= MAX_ATTEMPTS) {
+                        throw new AccountException(ACCOUNT_TRANSACTION_LOCK);
+                    }
+                }
+            }
+        } catch (RuntimeException e) {
+            failure = e;
+            throw e;
+        } finally {
+            AccountLockContext.clear();
+            // DATABASE 락은 unlock에서 커밋하므로, 재시도 중 롤백된 배치는 여기서 실패한다.
+            try {
+                lockService.unlock(accountNumber);
+            } catch (RuntimeException e) {
+                if (failure == null) {
+                    throw e;
+                }
+                failure.addSuppressed(e);
+            }
+        }
+    }
+
+    private static class PendingCommand {
+        private final LedgerBatch.Command command;
+        private final CompletableFuture<TransactionDto> future = new CompletableFuture<>();
+
+        private PendingCommand(LedgerBatch.Command command) {
+            this.command = command;
+        }
+    }
+
+    // 계좌 하나를 담당하는 단일 writer
+    private class Worker {
+        private final String accountNumber;
+        private final BlockingQueue<PendingCommand> queue;
+        private final Thread thread;
+
+        private volatile boolean running = true;
+
+        private Worker(String accountNumber, int queueCapacity) {
+            this.accountNumber = accountNumber;
+            this.queue = new ArrayBlockingQueue<>(queueCapacity);
+            this.thread = new Thread(this::run, "ledger-" + accountNumber);
+            this.thread.setDaemon(true);
+        }
+
+        private void start() {
+            thread.start();
+        }
+
+        // 처리 중인 배치의 락 획득과 DB 작업이 중단되지 않도록 인터럽트하지 않고, poll 타임아웃 이후에 종료된다.
+        // 제한 시간 안에 처리하지 못하고 큐에 남은 요청은 실패시킨다.
+        private void stop() throws InterruptedException {
+            running = false;
+            thread.join(SHUTDOWN_TIMEOUT_MILLIS);
+
+            List<PendingCommand> remaining = new ArrayList<>();
+            queue.drainTo(remaining);
+            if (!remaining.isEmpty()) {
+                log.error("Failed {} ledger commands left after shutdown, accountNumber : {}",
+                        remaining.size(), accountNumber);
+            }
+            remaining.forEach(pending -> pending.future.completeExceptionally(
+                    new AccountException(TRANSACTION_PROCESSOR_STOPPED)));
+        }
+
+        private void run() {
+            List<PendingCommand> batch = new ArrayList<>(maxBatchSize);
+            while (running || !queue.isEmpty()) {
+                try {
+                    PendingCommand first = queue.poll(POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+                    if (first == null) {
+                        continue;
+                    }
+                    batch.add(first);
+                } catch (InterruptedException e) {
+                    // 큐에 남은 요청이 버려지지 않도록 인터럽트로는 종료하지 않는다(stop()의 running으로 종료).
+                    continue;
+                }
+
+                queue.drainTo(batch, maxBatchSize - 1);
+                process(accountNumber, batch);
+                batch.clear();
+            }
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.maeng0830.account.service;
+
+import com.maeng0830.account.aop.Idempotent;
+import com.maeng0830.account.aop.IdempotencyKeyInterface;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+// 멱등 키로 중복 요청을 걸러낸다.
+// 계좌 락(LockAopAspect, 가장 낮은 우선순위)보다 먼저 실행되어, 중복 요청은 락을 잡거나 DB를 조회하지 않는다.
+// HIGHEST_PRECEDENCE로 지정하면 ExposeInvocationInterceptor보다 앞서서 다른 aspect의 인자 바인딩이 실패한다.
+@Aspect
+@Component
+@Order(0)
+@RequiredArgsConstructor
+public class IdempotencyAspect {
+    private final IdempotencyStore idempotencyStore;
+
+    @Around("@annotation(idempotent) && args(request)")
+    public Object aroundMethod(ProceedingJoinPoint pjp, Idempotent idempotent,
+                               IdempotencyKeyInterface request) throws Throwable {
+        if (request.getIdempotencyKey() == null) {
+            return pjp.proceed();
+        }
+
+        // 같은 키라도 요청 종류와 계좌가 다르면 다른 요청이다.
+        MethodSignature signature = (MethodSignature) pjp.getSignature();
+        String key = signature.getName() + ":" + request.getAccountNumber()
+                + ":" + request.getIdempotencyKey();
+
+        // 비동기 메서드는 결과가 끝날 때까지 기다린 뒤 저장하므로, @Async 메서드에서는 실행 스레드가 기다린다.
+        if (CompletableFuture.class.equals(signature.getReturnType())) {
+            return CompletableFuture.completedFuture(idempotencyStore.execute(
+                    key, request, futureValueType(signature.getMethod()), () -> join(pjp.proceed())));
+        }
+        return idempotencyStore.execute(key, request, signature.getReturnType(), pjp::proceed);
+    }
+
+    // CompletableFuture<T>의 T
+    private static Class<?> futureValueType(Method method) {
+        Type valueType = ((ParameterizedType) method.getGenericReturnType()).getActualTypeArguments()[0];
+        return valueType instanceof ParameterizedType
+                ? (Class<?>) ((ParameterizedType) valueType).getRawType() : (Class<?>) valueType;
+    }
+
+    private static Object join(Object future) throws Throwable {
+        try {
+            return ((CompletableFuture<?>) future).join();
+        } catch (CompletionException e) {
+            throw e.getCause();
+        }
+    }
+}
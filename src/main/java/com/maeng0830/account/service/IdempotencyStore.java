@@ -0,0 +1,202 @@
+package com.maeng0830.account.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.maeng0830.account.exception.AccountException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RBucket;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.math.BigInteger;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+import static com.maeng0830.account.type.ErrorCode.IDEMPOTENCY_KEY_REUSED;
+import static com.maeng0830.account.type.ErrorCode.IDEMPOTENT_REQUEST_IN_PROGRESS;
+
+// 멱등 키 별 응답 저장소(idempotentResponses)
+// 1. 로컬 캐시에 처리된 응답이 있으면 바로 반환한다.
+// 2. 같은 인스턴스에서 동시에 들어온 중복 요청은 처음 요청의 결과를 함께 기다린다.
+// 3. 다른 인스턴스와는 Redis 키를 먼저 선점한 쪽만 처리하고, 나머지는 저장된 응답을 읽는다.
+// 실패한 요청은 저장하지 않아서 같은 키로 다시 시도할 수 있다.
+// 요청 내용의 해시를 함께 저장해서, 같은 키로 내용(금액, 거래 id 등)이 다른 요청이 들어오면 처음 응답을 반환하지 않고 거절한다.
+@Slf4j
+@Component
+public class IdempotencyStore {
+    public static final String IDEMPOTENT_RESPONSES = "idempotentResponses";
+
+    private static final String KEY_PREFIX = "idempotency:";
+    private static final String IN_PROGRESS = "IN_PROGRESS";
+    private static final String SEPARATOR = ":";
+    private static final long POLL_INTERVAL_MILLIS = 20L;
+
+    private final CacheManager cacheManager;
+    private final RedissonClient redissonClient;
+    private final ObjectMapper objectMapper;
+    private final long ttlMillis;
+    private final long waitMillis;
+    private final ConcurrentMap<String, InFlight> inFlight = new ConcurrentHashMap<>();
+
+    public IdempotencyStore(
+            CacheManager cacheManager,
+            RedissonClient redissonClient,
+            ObjectMapper objectMapper,
+            @Value("${account.idempotency.ttl:10m}") Duration ttl,
+            @Value("${account.idempotency.wait:1000}") long waitMillis) {
+        this.cacheManager = cacheManager;
+        this.redissonClient = redissonClient;
+        this.objectMapper = objectMapper;
+        this.ttlMillis = ttl.toMillis();
+        this.waitMillis = waitMillis;
+    }
+
+    @FunctionalInterface
+    public interface Invocation {
+        Object proceed() throws Throwable;
+    }
+
+    public Object execute(String key, Object request, Class<?> responseType,
+                          Invocation invocation) throws Throwable {
+        String fingerprint = fingerprint(request);
+        Object cached = getLocal(key, fingerprint, responseType);
+        if (cached != null) {
+            return cached;
+        }
+
+        InFlight current = new InFlight(fingerprint);
+        InFlight running = inFlight.putIfAbsent(key, current);
+        if (running != null) {
+            checkFingerprint(running.fingerprint, fingerprint);
+            return await(running.future);
+        }
+
+        try {
+            // 확인과 등록 사이에 처음 요청이 끝났을 수 있다.
+            Object result = getLocal(key, fingerprint, responseType);
+            if (result == null) {
+                result = executeOnce(key, fingerprint, responseType, invocation);
+            }
+            current.future.complete(result);
+            return result;
+        } catch (Throwable e) {
+            current.future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, current);
+        }
+    }
+
+    // 요청 내용(JSON)의 SHA-256
+    String fingerprint(Object request) throws JsonProcessingException, NoSuchAlgorithmException {
+        byte[] digest = MessageDigest.getInstance("SHA-256")
+                .digest(objectMapper.writeValueAsBytes(request));
+        return String.format("%064x", new BigInteger(1, digest));
+    }
+
+    private Object executeOnce(String key, String fingerprint, Class<?> responseType,
+                               Invocation invocation) throws Throwable {
+        RBucket<String> bucket = redissonClient.getBucket(KEY_PREFIX + key, StringCodec.INSTANCE);
+        long deadline = System.currentTimeMillis() + waitMillis;
+        while (!bucket.trySet(fingerprint + SEPARATOR + IN_PROGRESS, ttlMillis, TimeUnit.MILLISECONDS)) {
+            // 다른 인스턴스가 처리했거나 처리 중인 요청, 저장 값은 "요청 해시:응답(JSON) 또는 IN_PROGRESS"
+            String stored = bucket.get();
+            if (stored != null) {
+                int separator = stored.indexOf(SEPARATOR);
+                checkFingerprint(stored.substring(0, separator), fingerprint);
+                String response = stored.substring(separator + 1);
+                if (!IN_PROGRESS.equals(response)) {
+                    Object result = objectMapper.readValue(response, responseType);
+                    putLocal(key, fingerprint, result);
+                    return result;
+                }
+            }
+
+            if (System.currentTimeMillis() >= deadline) {
+                throw new AccountException(IDEMPOTENT_REQUEST_IN_PROGRESS);
+            }
+            sleep();
+        }
+
+        Object result;
+        try {
+            result = invocation.proceed();
+        } catch (Throwable e) {
+            bucket.delete();
+            throw e;
+        }
+
+        putLocal(key, fingerprint, result);
+        try {
+            bucket.set(fingerprint + SEPARATOR + objectMapper.writeValueAsString(result),
+                    ttlMillis, TimeUnit.MILLISECONDS);
+        } catch (JsonProcessingException e) {
+            // 처리는 끝났으므로 응답은 반환하고, 다른 인스턴스는 TTL 동안 처리 중으로 보게 된다.
+            log.error("Failed to store idempotent response. key : {}", key, e);
+        }
+        return result;
+    }
+
+    private static void checkFingerprint(String stored, String requested) {
+        if (!stored.equals(requested)) {
+            throw new AccountException(IDEMPOTENCY_KEY_REUSED);
+        }
+    }
+
+    private Object await(CompletableFuture<Object> running) throws Throwable {
+        try {
+            return running.join();
+        } catch (CompletionException e) {
+            throw e.getCause();
+        }
+    }
+
+    private Object getLocal(String key, String fingerprint, Class<?> responseType) {
+        Cache cache = cacheManager.getCache(IDEMPOTENT_RESPONSES);
+        StoredResponse stored = cache == null ? null : cache.get(key, StoredResponse.class);
+        if (stored == null) {
+            return null;
+        }
+        checkFingerprint(stored.fingerprint, fingerprint);
+        return responseType.cast(stored.response);
+    }
+
+    private void putLocal(String key, String fingerprint, Object result) {
+        Cache cache = cacheManager.getCache(IDEMPOTENT_RESPONSES);
+        if (cache != null && result != null) {
+            cache.put(key, new StoredResponse(fingerprint, result));
+        }
+    }
+
+    private void sleep() {
+        try {
+            Thread.sleep(POLL_INTERVAL_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AccountException(IDEMPOTENT_REQUEST_IN_PROGRESS);
+        }
+    }
+
+    @RequiredArgsConstructor
+    private static class InFlight {
+        private final String fingerprint;
+        private final CompletableFuture<Object> future = new CompletableFuture<>();
+    }
+
+    @RequiredArgsConstructor
+    private static class StoredResponse {
+        private final String fingerprint;
+        private final Object response;
+    }
+}
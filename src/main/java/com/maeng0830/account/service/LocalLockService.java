@@ -0,0 +1,40 @@
+package com.maeng0830.account.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.maeng0830.account.type.LockMode.LOCAL;
+
+// JVM 내부 락(StripedAccountLock)만 사용한다.
+// 인스턴스가 하나뿐인 배포나 테스트용, 여러 인스턴스 사이에서는 계좌 변경이 직렬화되지 않는다.
+@Slf4j
+public class LocalLockService extends AbstractLockService {
+    private final StripedAccountLock stripedAccountLock;
+
+    public LocalLockService(StripedAccountLock stripedAccountLock, MeterRegistry meterRegistry) {
+        super(meterRegistry, LOCAL);
+        this.stripedAccountLock = stripedAccountLock;
+    }
+
+    @Override
+    protected Long acquire(String accountNumber, long waitTimeMillis, long leaseTimeMillis) {
+        try {
+            if (!stripedAccountLock.tryLock(
+                    accountNumber, waitTimeMillis, TimeUnit.MILLISECONDS)) {
+                log.error("================Local lock acquisition failed=========");
+                throw lockFailure("local_timeout");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw lockFailure("interrupted");
+        }
+        return null;
+    }
+
+    @Override
+    protected void release(String accountNumber) {
+        stripedAccountLock.unlock(accountNumber);
+    }
+}
@@ -1,31 +1,120 @@
 package com.maeng0830.account.service;
 
+import com.maeng0830.account.aop.AccountLock;
+import com.maeng0830.account.aop.AccountLockContext;
 import com.maeng0830.account.aop.AccountLockIdInterface;
+import com.maeng0830.account.exception.AccountException;
+import com.maeng0830.account.type.BalanceConcurrencyMode;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Component;
 
+import java.util.concurrent.ThreadLocalRandom;
+
+import static com.maeng0830.account.type.BalanceConcurrencyMode.CONDITIONAL_UPDATE;
+import static com.maeng0830.account.type.BalanceConcurrencyMode.OPTIMISTIC;
+import static com.maeng0830.account.type.ErrorCode.ACCOUNT_TRANSACTION_LOCK;
+
 @Aspect
 @Component
 @Slf4j
 @RequiredArgsConstructor
 public class LockAopAspect {
     private final LockService lockService;
+    private final HotAccountLedger hotAccountLedger;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${account.balance.concurrency-mode:LOCK}")
+    private BalanceConcurrencyMode concurrencyMode;
+
+    @Value("${account.balance.optimistic.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${account.balance.optimistic.backoff:10}")
+    private long backoffMillis;
+
+    @Around("@annotation(accountLock) && args(request)")
+    public Object aroundMethod(ProceedingJoinPoint pjp, AccountLock accountLock,
+                               AccountLockIdInterface request) throws Throwable {
+        //  ´ HotAccountLedger ġ    ´.
+        if (hotAccountLedger.isHotAccount(request.getAccountNumber())) {
+            return pjp.proceed();
+        }
+
+        if (concurrencyMode == OPTIMISTIC) {
+            return proceedWithRetry(pjp, request);
+        }
+
+        // ܾ  Ǻ UPDATE       ʿ .
+        if (concurrencyMode == CONDITIONAL_UPDATE) {
+            return pjp.proceed();
+        }
 
-    @Around("@annotation(com.maeng0830.account.aop.AccountLock) && args(request)")
-    public Object aroundMethod(ProceedingJoinPoint pjp, AccountLockIdInterface request) throws Throwable {
         // lock  õ
-        lockService.lock(request.getAccountNumber());
+        Long fencingToken = lockService.lock(request.getAccountNumber(),
+                accountLock.tryLockTime(), accountLock.leaseTime());
+        AccountLockContext.setFencingToken(fencingToken);
+        Throwable failure = null;
         try {
             // before
             return pjp.proceed();
             // after
+        } catch (Throwable e) {
+            failure = e;
+            throw e;
         } finally {
             // lock 
-            lockService.unlock(request.getAccountNumber());
+            AccountLockContext.clear();
+            try {
+                lockService.unlock(request.getAccountNumber());
+            } catch (RuntimeException e) {
+                // DATABASE  unlock ĿϹǷ   ִ. û ̹   ܸ Ѵ.
+                if (failure == null) {
+                    throw e;
+                }
+                failure.addSuppressed(e);
+            }
+        }
+    }
+
+    //    ϰ, ٸ û  ¸ ؼ @Version 浹  õѴ.
+    private Object proceedWithRetry(ProceedingJoinPoint pjp,
+                                    AccountLockIdInterface request) throws Throwable {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return pjp.proceed();
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt >= maxAttempts) {
+                    log.error("Optimistic lock failed {} times for accountNumber : {}",
+                            attempt, request.getAccountNumber());
+                    meterRegistry.counter("account.lock.failures",
+                            "reason", "optimistic_exhausted").increment();
+                    throw new AccountException(ACCOUNT_TRANSACTION_LOCK);
+                }
+
+                meterRegistry.counter("account.lock.optimistic.retries").increment();
+
+                log.debug("Optimistic lock conflict for accountNumber : {}, attempt : {}",
+                        request.getAccountNumber(), attempt);
+                backoff(attempt);
+            }
+        }
+    }
+
+    // õ   ø, ÿ õ ʵ jitter ش.
+    private void backoff(int attempt) {
+        long maxBackoff = backoffMillis << Math.min(attempt - 1, 10);
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(maxBackoff + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AccountException(ACCOUNT_TRANSACTION_LOCK);
         }
     }
 }
@@ -1,43 +1,13 @@
 package com.maeng0830.account.service;
 
-import com.maeng0830.account.exception.AccountException;
-import com.maeng0830.account.type.ErrorCode;
-import lombok.RequiredArgsConstructor;
-import lombok.extern.slf4j.Slf4j;
-import org.redisson.api.RLock;
-import org.redisson.api.RedissonClient;
-import org.springframework.stereotype.Service;
-
-import java.util.concurrent.TimeUnit;
-
-@Slf4j
-@Service
-@RequiredArgsConstructor
-public class LockService {
-    private final RedissonClient redissonClient;
-
-    public void lock(String accountNumber) {
-        RLock lock = redissonClient.getLock(getLockKey(accountNumber));
-        log.debug("Trying lock for accountNumber : {}", accountNumber);
-
-        try {
-            boolean isLock = lock.tryLock(1, 15, TimeUnit.SECONDS);
-            if (!isLock) {
-                log.error("================Lock acquisition failed=========");
-                throw new AccountException(ErrorCode.ACCOUNT_TRANSACTION_LOCK);
-            }
-        } catch(AccountException e) {
-            throw e;
-        } catch (Exception e) {
-            log.error("Redis lock failed", e);
-        }
-    }
-
-    public void unlock(String accountNumber) {
-        log.debug("Unlock for accountNumber : {} ", accountNumber);
-        redissonClient.getLock(getLockKey(accountNumber)).unlock();
-    }
-    private static String getLockKey(String accountNumber) {
-        return "ACLK:" + accountNumber;
-    }
+// 계좌 락
+// 구현체는 account.lock.mode 설정에 따라 LockConfig에서 하나만 등록된다.
+// LOCAL - LocalLockService, DISTRIBUTED/HYBRID - RedissonLockService, DATABASE - DatabaseLockService
+public interface LockService {
+    // 락을 획득하고 fencing token을 반환한다, fencing token을 발급하지 않는 구현체는 null을 반환한다.
+    // 락을 얻지 못하면 AccountException(ACCOUNT_TRANSACTION_LOCK)을 던진다.
+    Long lock(String accountNumber, long waitTimeMillis, long leaseTimeMillis);
+
+    // lock을 호출한 스레드에서 호출해야 한다.
+    void unlock(String accountNumber);
 }
@@ -0,0 +1,154 @@
+package com.maeng0830.account.service;
+
+import com.maeng0830.account.dto.ReconciliationReport;
+import com.maeng0830.account.repository.AccountRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// 야간 잔액 정산
+// 계좌 id를 range-size 단위 범위로 나누고, parallelism 개의 스레드가 범위마다 별도의 트랜잭션으로 정산한다.
+// 불일치는 범위 정산이 끝날 때마다 모두 재확인해서 남은 것만 세고, 상세 내역은 max-reported-mismatches 건까지만 담는다.
+@Slf4j
+@Component
+public class ReconciliationJob {
+    private final ReconciliationService reconciliationService;
+    private final AccountRepository accountRepository;
+    private final long rangeSize;
+    private final int parallelism;
+    private final int maxReportedMismatches;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicLong checkedAccounts = new AtomicLong();
+    private final AtomicLong totalAccounts = new AtomicLong();
+    private volatile ReconciliationReport lastReport;
+
+    public ReconciliationJob(
+            ReconciliationService reconciliationService,
+            AccountRepository accountRepository,
+            MeterRegistry meterRegistry,
+            @Value("${account.reconciliation.range-size:10000}") long rangeSize,
+            @Value("${account.reconciliation.parallelism:4}") int parallelism,
+            @Value("${account.reconciliation.max-reported-mismatches:100}") int maxReportedMismatches) {
+        this.reconciliationService = reconciliationService;
+        this.accountRepository = accountRepository;
+        this.rangeSize = rangeSize;
+        this.parallelism = parallelism;
+        this.maxReportedMismatches = maxReportedMismatches;
+
+        Gauge.builder("account.reconciliation.progress", this, ReconciliationJob::getProgress)
+                .description("Ratio of accounts checked by the running (or last) reconciliation")
+                .register(meterRegistry);
+        Gauge.builder("account.reconciliation.mismatches", this,
+                        job -> job.lastReport == null ? 0 : job.lastReport.getMismatchedAccounts())
+                .description("Accounts whose balance did not match in the last reconciliation")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(cron = "${account.reconciliation.cron:0 0 3 * * *}")
+    public void scheduledRun() {
+        run();
+    }
+
+    // 이미 실행 중이면 실행하지 않고 마지막 결과를 반환한다.
+    public ReconciliationReport run() {
+        if (!running.compareAndSet(false, true)) {
+            log.warn("Reconciliation is already running.");
+            return lastReport;
+        }
+
+        try {
+            ReconciliationReport report = reconcile();
+            lastReport = report;
+            if (report.getMismatchedAccounts() > 0) {
+                log.error("Reconciliation found {} mismatched accounts out of {}. mismatches : {}",
+                        report.getMismatchedAccounts(), report.getCheckedAccounts(),
+                        report.getMismatches());
+            } else {
+                log.info("Reconciliation checked {} accounts.", report.getCheckedAccounts());
+            }
+            return report;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    public double getProgress() {
+        long total = totalAccounts.get();
+        return total == 0 ? 1.0 : Math.min(1.0, (double) checkedAccounts.get() / total);
+    }
+
+    public ReconciliationReport getLastReport() {
+        return lastReport;
+    }
+
+    private ReconciliationReport reconcile() {
+        LocalDateTime startedAt = LocalDateTime.now();
+        checkedAccounts.set(0);
+        totalAccounts.set(accountRepository.countByInitialBalanceNotNull());
+
+        AtomicLong mismatchedAccounts = new AtomicLong();
+        Queue<ReconciliationReport.Mismatch> reported = new ConcurrentLinkedQueue<>();
+        Long minId = accountRepository.findMinId();
+        Long maxId = accountRepository.findMaxId();
+
+        if (minId != null) {
+            ExecutorService executor = newExecutor();
+            try {
+                List<CompletableFuture<Void>> futures = new ArrayList<>();
+                for (long fromId = minId; fromId <= maxId; fromId += rangeSize) {
+                    long from = fromId;
+                    long to = Math.min(maxId, fromId + rangeSize - 1);
+                    futures.add(CompletableFuture.runAsync(() -> {
+                        List<ReconciliationReport.Mismatch> found = new ArrayList<>();
+                        reconciliationService.reconcileRange(from, to, checkedAccounts, found::add);
+
+                        // 범위의 스트림을 닫은 뒤에 재확인한다. 범위 정산 중에 처리된 거래 때문에 생긴 불일치는 세지 않는다.
+                        for (ReconciliationReport.Mismatch mismatch : found) {
+                            reconciliationService.recheck(mismatch).ifPresent(confirmed -> {
+                                if (mismatchedAccounts.incrementAndGet() <= maxReportedMismatches) {
+                                    reported.add(confirmed);
+                                }
+                            });
+                        }
+                    }, executor));
+                }
+                CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).join();
+            } finally {
+                executor.shutdown();
+            }
+        }
+
+        return ReconciliationReport.builder()
+                .startedAt(startedAt)
+                .finishedAt(LocalDateTime.now())
+                .checkedAccounts(checkedAccounts.get())
+                .mismatchedAccounts(mismatchedAccounts.get())
+                .mismatches(new ArrayList<>(reported))
+                .build();
+    }
+
+    private ExecutorService newExecutor() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        return Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "reconciliation-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+}
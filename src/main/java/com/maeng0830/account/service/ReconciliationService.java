@@ -0,0 +1,87 @@
+package com.maeng0830.account.service;
+
+import com.maeng0830.account.dto.ReconciliationAccount;
+import com.maeng0830.account.dto.ReconciliationEntry;
+import com.maeng0830.account.dto.ReconciliationReport;
+import com.maeng0830.account.repository.AccountRepository;
+import com.maeng0830.account.repository.TransactionRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import javax.transaction.Transactional;
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static com.maeng0830.account.type.TransactionType.USE;
+
+// 잔액 정산
+// 계좌의 잔액이 초기 잔액 - 사용(S) + 사용 취소(S)와 같은지 확인한다.
+@Service
+@RequiredArgsConstructor
+public class ReconciliationService {
+    private final AccountRepository accountRepository;
+    private final TransactionRepository transactionRepository;
+
+    // id 범위 [fromId, toId]의 계좌 정산
+    // 계좌와 거래를 모두 계좌 id 순으로 스트리밍하면서 병합하기 때문에, 범위의 크기와 관계없이
+    // 현재 계좌의 잔액 합계(long) 하나만 메모리에 둔다.
+    @Transactional
+    public void reconcileRange(Long fromId, Long toId,
+                               AtomicLong checkedAccounts,
+                               Consumer<ReconciliationReport.Mismatch> mismatchConsumer) {
+        try (Stream<ReconciliationAccount> accounts =
+                     accountRepository.streamReconciliationAccounts(fromId, toId);
+             Stream<ReconciliationEntry> entries =
+                     transactionRepository.streamReconciliationEntries(fromId, toId)) {
+            Iterator<ReconciliationEntry> entryIterator = entries.iterator();
+            ReconciliationEntry entry = next(entryIterator);
+
+            for (Iterator<ReconciliationAccount> accountIterator = accounts.iterator();
+                 accountIterator.hasNext(); ) {
+                ReconciliationAccount account = accountIterator.next();
+                long accountId = account.getId();
+
+                // 초기 잔액이 없어서 제외된 계좌의 거래
+                while (entry != null && entry.getAccountId() < accountId) {
+                    entry = next(entryIterator);
+                }
+
+                long expectedBalance = account.getInitialBalance();
+                while (entry != null && entry.getAccountId() == accountId) {
+                    expectedBalance += balanceChange(entry);
+                    entry = next(entryIterator);
+                }
+
+                if (expectedBalance != account.getBalance()) {
+                    mismatchConsumer.accept(ReconciliationReport.Mismatch.builder()
+                            .accountId(accountId)
+                            .accountNumber(account.getAccountNumber())
+                            .expectedBalance(expectedBalance)
+                            .balance(account.getBalance())
+                            .build());
+                }
+                checkedAccounts.incrementAndGet();
+            }
+        }
+    }
+
+    // 불일치 재확인
+    // 범위 정산 중에 처리된 거래 때문에 생긴 불일치는 다시 확인하면 사라진다.
+    @Transactional
+    public Optional<ReconciliationReport.Mismatch> recheck(ReconciliationReport.Mismatch mismatch) {
+        // 잔액과 거래 합계를 한 문장으로 읽어서, 재확인 중에 커밋된 거래가 한쪽에만 반영되지 않도록 한다.
+        return accountRepository.findReconciliationBalance(mismatch.getAccountId())
+                .filter(rechecked -> rechecked.getExpectedBalance() != rechecked.getBalance());
+    }
+
+    private long balanceChange(ReconciliationEntry entry) {
+        return entry.getTransactionType() == USE ? -entry.getAmount() : entry.getAmount();
+    }
+
+    private ReconciliationEntry next(Iterator<ReconciliationEntry> entryIterator) {
+        return entryIterator.hasNext() ? entryIterator.next() : null;
+    }
+}
@@ -0,0 +1,102 @@
+package com.maeng0830.account.service;
+
+import com.maeng0830.account.exception.AccountException;
+import com.maeng0830.account.repository.AccountRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RAtomicLong;
+import org.redisson.api.RedissonClient;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static com.maeng0830.account.type.ErrorCode.ACCOUNT_NUMBER_EXHAUSTED;
+
+// Redis INCRBY로 계좌 번호 구간(block)을 선점하고, 구간 안의 번호는 메모리에서 발급한다.
+// 노드마다 서로 다른 구간을 받기 때문에 여러 노드에서 동시에 발급해도 번호가 겹치지 않는다.
+@Slf4j
+@Component
+public class RedisAccountNumberAllocator implements AccountNumberAllocator {
+    private static final String SEQUENCE_KEY = "ACNO:SEQ";
+    private static final long FIRST_ACCOUNT_NUMBER = 1_000_000_000L;
+    // 10자리 계좌 번호(1000000000 ~ 9999999999)의 개수
+    private static final long CAPACITY = 10_000_000_000L - FIRST_ACCOUNT_NUMBER;
+
+    private final RedissonClient redissonClient;
+    private final AccountRepository accountRepository;
+    private final long blockSize;
+    private final ReentrantLock renewLock = new ReentrantLock();
+
+    private volatile Block block = new Block(0L, 0L);
+
+    public RedisAccountNumberAllocator(
+            RedissonClient redissonClient,
+            AccountRepository accountRepository,
+            @Value("${account.number.block-size:1000}") long blockSize) {
+        this.redissonClient = redissonClient;
+        this.accountRepository = accountRepository;
+        this.blockSize = blockSize;
+    }
+
+    @Override
+    public String allocate() {
+        while (true) {
+            Block current = block;
+            long next = current.next.getAndIncrement();
+            if (next < current.limit) {
+                return String.valueOf(FIRST_ACCOUNT_NUMBER + next);
+            }
+
+            // 구간을 모두 사용한 경우에만 다음 구간을 선점한다.
+            // Redis 호출 중에 가상 스레드가 캐리어 스레드를 점유하지 않도록 synchronized 대신 ReentrantLock을 사용한다.
+            renewLock.lock();
+            try {
+                if (block == current) {
+                    block = reserveBlock();
+                }
+            } finally {
+                renewLock.unlock();
+            }
+        }
+    }
+
+    private Block reserveBlock() {
+        RAtomicLong sequence = redissonClient.getAtomicLong(SEQUENCE_KEY);
+        if (!sequence.isExists()) {
+            seed(sequence);
+        }
+
+        long limit = sequence.addAndGet(blockSize);
+        long start = limit - blockSize;
+        if (start >= CAPACITY) {
+            log.error("Account numbers are exhausted, sequence : {}", start);
+            throw new AccountException(ACCOUNT_NUMBER_EXHAUSTED);
+        }
+        log.debug("Reserved account number block : [{}, {})", start, limit);
+
+        // 마지막 구간은 9999999999까지만 발급한다.
+        return new Block(start, Math.min(limit, CAPACITY));
+    }
+
+    // Redis가 초기화되어 시퀀스가 없으면 DB에 있는 가장 큰 계좌 번호 다음부터 발급한다.
+    // 여러 노드가 동시에 시도해도 키가 없을 때만 값을 넣기 때문에 한 번만 적용된다.
+    private void seed(RAtomicLong sequence) {
+        long seed = accountRepository.findMaxAccountNumber()
+                .map(maxAccountNumber -> Long.parseLong(maxAccountNumber) - FIRST_ACCOUNT_NUMBER + 1)
+                .orElse(0L);
+        if (seed > 0 && sequence.compareAndSet(0L, seed)) {
+            log.info("Seeded account number sequence from database : {}", seed);
+        }
+    }
+
+    private static class Block {
+        private final AtomicLong next;
+        private final long limit;
+
+        Block(long start, long limit) {
+            this.next = new AtomicLong(start);
+            this.limit = limit;
+        }
+    }
+}
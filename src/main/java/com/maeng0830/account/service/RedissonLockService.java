@@ -0,0 +1,89 @@
+package com.maeng0830.account.service;
+
+import com.maeng0830.account.exception.AccountException;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RLock;
+import org.redisson.api.RedissonClient;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.maeng0830.account.type.LockMode.DISTRIBUTED;
+import static com.maeng0830.account.type.LockMode.HYBRID;
+
+// Redis 분산 락, 락을 얻을 때마다 fencing token을 발급한다.
+// localLockService가 있으면(HYBRID) 같은 JVM 안에서는 계좌 당 하나의 스레드만 Redis 락을 시도하도록 먼저 직렬화한다.
+@Slf4j
+public class RedissonLockService extends AbstractLockService {
+    private final RedissonClient redissonClient;
+    private final LocalLockService localLockService;
+
+    public RedissonLockService(RedissonClient redissonClient, LocalLockService localLockService,
+                               MeterRegistry meterRegistry) {
+        super(meterRegistry, localLockService == null ? DISTRIBUTED : HYBRID);
+        this.redissonClient = redissonClient;
+        this.localLockService = localLockService;
+    }
+
+    // Redis 장애로 분산 락을 얻지 못한 경우 fencing token은 null이다.
+    @Override
+    protected Long acquire(String accountNumber, long waitTimeMillis, long leaseTimeMillis) {
+        if (localLockService == null) {
+            return lockDistributed(accountNumber, waitTimeMillis, leaseTimeMillis);
+        }
+
+        long startedAt = System.nanoTime();
+        localLockService.acquire(accountNumber, waitTimeMillis, leaseTimeMillis);
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+        try {
+            return lockDistributed(accountNumber,
+                    Math.max(0L, waitTimeMillis - elapsedMillis), leaseTimeMillis);
+        } catch (AccountException e) {
+            localLockService.release(accountNumber);
+            throw e;
+        }
+    }
+
+    // leaseTime이 -1이면 Redisson watchdog이 unlock 전까지 락 만료 시간을 계속 연장한다.
+    private Long lockDistributed(String accountNumber, long waitTimeMillis, long leaseTimeMillis) {
+        RLock lock = redissonClient.getLock(getLockKey(accountNumber));
+
+        try {
+            boolean isLock = lock.tryLock(waitTimeMillis, leaseTimeMillis, TimeUnit.MILLISECONDS);
+            if (!isLock) {
+                log.error("================Lock acquisition failed=========");
+                throw lockFailure("distributed_timeout");
+            }
+
+            // 락을 얻을 때마다 단조 증가하는 fencing token 발급
+            return redissonClient.getAtomicLong(getFencingTokenKey(accountNumber))
+                    .incrementAndGet();
+        } catch(AccountException e) {
+            throw e;
+        } catch (Exception e) {
+            // 분산 락 없이 로컬 락만으로 진행하므로 획득 실패는 아니지만 따로 센다.
+            log.error("Redis lock failed", e);
+            countFailure("redis_error");
+            return null;
+        }
+    }
+
+    @Override
+    protected void release(String accountNumber) {
+        try {
+            redissonClient.getLock(getLockKey(accountNumber)).unlock();
+        } finally {
+            if (localLockService != null) {
+                localLockService.release(accountNumber);
+            }
+        }
+    }
+
+    private static String getLockKey(String accountNumber) {
+        return "ACLK:" + accountNumber;
+    }
+
+    private static String getFencingTokenKey(String accountNumber) {
+        return "ACFT:" + accountNumber;
+    }
+}
@@ -0,0 +1,38 @@
+package com.maeng0830.account.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+// 계좌 번호를 해시해서 고정된 개수의 ReentrantLock 중 하나에 매핑하는 JVM 내부 락 테이블
+// 계좌마다 락 객체를 만들지 않기 때문에 메모리 사용량이 계좌 수와 무관하다.
+@Component
+public class StripedAccountLock {
+    private final ReentrantLock[] stripes;
+    private final int mask;
+
+    public StripedAccountLock(@Value("${account.lock.stripes:1024}") int stripes) {
+        int size = Integer.highestOneBit(Math.max(1, stripes - 1)) << 1;
+        this.stripes = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            this.stripes[i] = new ReentrantLock();
+        }
+        this.mask = size - 1;
+    }
+
+    public boolean tryLock(String accountNumber, long waitTime, TimeUnit unit)
+            throws InterruptedException {
+        return stripeOf(accountNumber).tryLock(waitTime, unit);
+    }
+
+    public void unlock(String accountNumber) {
+        stripeOf(accountNumber).unlock();
+    }
+
+    private ReentrantLock stripeOf(String accountNumber) {
+        int hash = accountNumber.hashCode();
+        return stripes[(hash ^ (hash >>> 16)) & mask];
+    }
+}
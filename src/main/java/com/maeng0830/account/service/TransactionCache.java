@@ -0,0 +1,51 @@
+package com.maeng0830.account.service;
+
+import com.maeng0830.account.dto.TransactionDto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Optional;
+
+// 거래 id 별 거래 캐시(transactions)
+// 한 번 저장된 거래는 변경되지 않으므로 무효화 없이 크기와 TTL로만 제거한다.
+// 엔티티 대신 값만 가진 TransactionDto를 저장해서 영속성 컨텍스트와 분리한다.
+@Component
+@RequiredArgsConstructor
+public class TransactionCache {
+    public static final String TRANSACTIONS = "transactions";
+
+    private final CacheManager cacheManager;
+
+    public Optional<TransactionDto> get(String transactionId) {
+        Cache cache = cacheManager.getCache(TRANSACTIONS);
+        if (cache == null) {
+            return Optional.empty();
+        }
+
+        return Optional.ofNullable(cache.get(transactionId, TransactionDto.class));
+    }
+
+    // 롤백된 거래가 조회되지 않도록, 트랜잭션 안에서는 커밋 이후에 저장한다.
+    public void put(TransactionDto transactionDto) {
+        Cache cache = cacheManager.getCache(TRANSACTIONS);
+        if (cache == null) {
+            return;
+        }
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            cache.put(transactionDto.getTransactionId(), transactionDto);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                cache.put(transactionDto.getTransactionId(), transactionDto);
+            }
+        });
+    }
+}
@@ -0,0 +1,46 @@
+package com.maeng0830.account.service;
+
+import com.maeng0830.account.domain.TransactionIdCodec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// 시간 순으로 증가하는 64bit 거래 id 발급기(Snowflake 방식)
+// | 0 | 41bit 밀리초(EPOCH 기준) | 10bit 노드 id | 12bit 시퀀스 |
+// 같은 밀리초에 4096개를 넘게 발급하거나 시계가 뒤로 가면 다음 밀리초 값을 미리 사용하므로, 같은 노드 안에서는 항상 증가한다.
+// 여러 인스턴스를 띄우는 경우 account.transaction-id.node-id를 인스턴스마다 다르게 지정해야 한다.
+@Component
+public class TransactionIdGenerator {
+    static final long EPOCH = 1640995200000L; // 2022-01-01T00:00:00Z
+    static final int NODE_BITS = 10;
+    static final int SEQUENCE_BITS = 12;
+    static final long MAX_NODE_ID = (1L << NODE_BITS) - 1;
+    static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    private final long nodeBits;
+    // 마지막으로 발급한 (밀리초 << SEQUENCE_BITS | 시퀀스)
+    private final AtomicLong lastState = new AtomicLong();
+
+    public TransactionIdGenerator(@Value("${account.transaction-id.node-id:0}") long nodeId) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("node-id must be between 0 and " + MAX_NODE_ID);
+        }
+        this.nodeBits = nodeId << SEQUENCE_BITS;
+    }
+
+    public String nextId() {
+        return TransactionIdCodec.encode(nextLong());
+    }
+
+    long nextLong() {
+        long state = lastState.updateAndGet(last -> {
+            long now = (System.currentTimeMillis() - EPOCH) << SEQUENCE_BITS;
+            // 새로운 밀리초면 시퀀스 0부터, 아니면 마지막 값 + 1(시퀀스가 넘치면 다음 밀리초로 넘어감)
+            return now > last ? now : last + 1;
+        });
+
+        long timestamp = state >>> SEQUENCE_BITS;
+        return (timestamp << (NODE_BITS + SEQUENCE_BITS)) | nodeBits | (state & SEQUENCE_MASK);
+    }
+}
@@ -1,25 +1,38 @@
 package com.maeng0830.account.service;
 
+import com.maeng0830.account.aop.AccountLockContext;
 import com.maeng0830.account.domain.Account;
 import com.maeng0830.account.domain.AccountUser;
 import com.maeng0830.account.domain.Transaction;
+import com.maeng0830.account.dto.FailedTransaction;
+import com.maeng0830.account.dto.LedgerBatch;
 import com.maeng0830.account.dto.TransactionDto;
+import com.maeng0830.account.dto.TransactionHistory;
+import com.maeng0830.account.dto.UseBalance;
 import com.maeng0830.account.exception.AccountException;
 import com.maeng0830.account.repository.AccountRepository;
 import com.maeng0830.account.repository.AccountUserRepository;
 import com.maeng0830.account.repository.TransactionRepository;
 import com.maeng0830.account.type.AccountStatus;
+import com.maeng0830.account.type.BalanceConcurrencyMode;
 import com.maeng0830.account.type.TransactionResultType;
 import com.maeng0830.account.type.TransactionType;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
 import javax.transaction.Transactional;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
-import java.util.UUID;
+import java.util.stream.Collectors;
 
+import static com.maeng0830.account.type.BalanceConcurrencyMode.CONDITIONAL_UPDATE;
 import static com.maeng0830.account.type.ErrorCode.*;
 import static com.maeng0830.account.type.TransactionResultType.F;
 import static com.maeng0830.account.type.TransactionResultType.S;
@@ -33,67 +46,286 @@ public class TransactionService {
     private final TransactionRepository transactionRepository;
     private final AccountUserRepository accountUserRepository;
     private final AccountRepository accountRepository;
+    private final AccountCache accountCache;
+    private final TransactionCache transactionCache;
+    private final TransactionIdGenerator transactionIdGenerator;
+
+    private static final int MAX_HISTORY_PAGE_SIZE = 100;
+    private static final String HISTORY_CURSOR_SEPARATOR = "_";
+    private static final LocalDateTime HISTORY_MAX_TRANSACTED_AT = LocalDateTime.of(9999, 12, 31, 0, 0);
+
+    @Value("${account.balance.concurrency-mode:LOCK}")
+    private BalanceConcurrencyMode concurrencyMode;
 
     // ܾ 
     @Transactional
     public TransactionDto useBalance(Long userId,
                                      String accountNumber, Long amount) {
-        // ڰ  
-        AccountUser user = accountUserRepository.findById(userId)
-                .orElseThrow(() -> new AccountException(USER_NOT_FOUND));
+        fence(accountNumber);
 
-        // °  
-        Account account = accountRepository.findByAccountNumber(accountNumber)
-                .orElseThrow(() -> new AccountException(ACCOUNT_NOT_FOUND));
+        if (concurrencyMode == CONDITIONAL_UPDATE) {
+            return useBalanceConditionally(userId, accountNumber, amount);
+        }
+
+        // ڰ  , °  , ڿ  ġ
+        Account account = findUserAccount(userId, accountNumber);
 
-        // ڿ  ġ, ̹  , ŷ ݾ ܾ ʰ
-        validateUseBalance(user, account, amount);
+        // ̹  , ŷ ݾ ܾ ʰ
+        validateUseBalance(account, amount);
 
         account.useBalance(amount);
 
         return TransactionDto.fromEntity(saveAndGetTransaction(USE, S, account, amount));
     }
 
-    // ܾ  - ڿ  ġ, ̹  , ŷ ݾ ܾ ʰ
-    private void validateUseBalance(AccountUser user, Account account, Long amount) {
-        // ڿ  ġ
-        if (!Objects.equals(user.getId(), account.getAccountUser().getId())) {
-            throw new AccountException(USER_ACCOUNT_UN_MATCH);
+    //    û ¸  ϵ, ܾ аų ٲٱ  fencing token DB ϰ Ѵ.
+    // °   ȸ   ã´.
+    private void fence(String accountNumber) {
+        Long fencingToken = AccountLockContext.getFencingToken();
+        if (fencingToken == null) {
+            return;
         }
 
+        if (accountRepository.updateFencingTokenIfNotStale(accountNumber, fencingToken) == 0
+                && accountRepository.existsByAccountNumber(accountNumber)) {
+            throw new AccountException(STALE_LOCK_TOKEN);
+        }
+    }
+
+    // ܾ (Ǻ UPDATE)
+    //   õϰ,  쿡 ڿ ¸ ȸؼ   ã´.
+    private TransactionDto useBalanceConditionally(Long userId,
+                                                   String accountNumber, Long amount) {
+        if (accountRepository.decreaseBalanceIfEnough(accountNumber, amount) == 0) {
+            throw useBalanceFailure(userId, accountNumber, amount);
+        }
+
+        //  ܾ ܾ  ϱ  UPDATE Ŀ ȸѴ.
+        // ڰ  , ڿ  ġ - ܰ ߻ϸ  ѹȴ.
+        Account account = findUserAccount(userId, accountNumber);
+
+        return TransactionDto.fromEntity(saveAndGetTransaction(USE, S, account, amount));
+    }
+
+    // ܾ (Ǻ UPDATE) -   
+    private AccountException useBalanceFailure(Long userId,
+                                               String accountNumber, Long amount) {
+        try {
+            validateUseBalance(findUserAccount(userId, accountNumber), amount);
+        } catch (AccountException e) {
+            return e;
+        }
+
+        // UPDATE  ٸ ŷ ܾ þ 
+        return new AccountException(AMOUNT_EXCEED_BALANCE);
+    }
+
+    // ܾ  -   ȸ
+    //  ȣ  id   ȸϰ, ȸ  쿡 ( ,  , ġ) ã´.
+    private Account findUserAccount(Long userId, String accountNumber) {
+        return accountRepository.findByAccountNumberAndAccountUser_Id(accountNumber, userId)
+                .orElseThrow(() -> {
+                    // ڰ  
+                    if (!accountUserRepository.existsById(userId)) {
+                        return new AccountException(USER_NOT_FOUND);
+                    }
+
+                    // °  
+                    if (!accountRepository.existsByAccountNumber(accountNumber)) {
+                        return new AccountException(ACCOUNT_NOT_FOUND);
+                    }
+
+                    // ڿ  ġ
+                    return new AccountException(USER_ACCOUNT_UN_MATCH);
+                });
+    }
+
+    // ܾ  - ̹  , ŷ ݾ ܾ ʰ
+    private void validateUseBalance(Account account, Long amount) {
         // ̹  
         if (account.getAccountStatus() != AccountStatus.IN_USE) {
-            throw new AccountException(ACCOUNT_ALREADY_UNREGISTERED);
+            throw new AccountException(ACCOUNT_ALREADY_UNREGISTERED, account.getBalance());
         }
 
         // ŷ ݾ ܾ ʰ
         if (account.getBalance() < amount) {
-            throw new AccountException(AMOUNT_EXCEED_BALANCE);
+            throw new AccountException(AMOUNT_EXCEED_BALANCE, account.getBalance());
         }
     }
 
+    //  ŷ ϰ 
+    // FailedTransactionRecorder Ƶ  ŷ  ȸ  , batch insert   Ѵ.
+    //  ʴ ¿   ŷ   Ƿ Ѵ.
+    // ܾ    ܾ ϰ,   ¸ ȸϱ ̶ 𸣴 쿡   ܾ Ѵ.
     @Transactional
-    public void saveFailedUseTransaction(String accountNumber, Long amount) {
-        Account account = accountRepository.findByAccountNumber(accountNumber)
-                .orElseThrow(() -> new AccountException(ACCOUNT_NOT_FOUND));
+    public void saveFailedTransactions(List<FailedTransaction> failedTransactions) {
+        Map<String, Account> accounts = accountRepository.findByAccountNumberIn(
+                        failedTransactions.stream()
+                                .map(FailedTransaction::getAccountNumber)
+                                .collect(Collectors.toSet())).stream()
+                .collect(Collectors.toMap(Account::getAccountNumber, account -> account));
+
+        List<Transaction> transactions = new ArrayList<>(failedTransactions.size());
+        for (FailedTransaction failedTransaction : failedTransactions) {
+            Account account = accounts.get(failedTransaction.getAccountNumber());
+            if (account == null) {
+                continue;
+            }
 
-        saveAndGetTransaction(USE, F, account, amount);
+            Long balanceSnapshot = failedTransaction.getBalanceSnapshot() != null
+                    ? failedTransaction.getBalanceSnapshot() : account.getBalance();
+            transactions.add(buildTransaction(failedTransaction.getTransactionType(), F, account,
+                    failedTransaction.getAmount(), balanceSnapshot,
+                    failedTransaction.getTransactedAt()));
+        }
+
+        transactionRepository.saveAll(transactions);
     }
 
     private Transaction saveAndGetTransaction(
             TransactionType transactionType,
             TransactionResultType transactionResultType, Account account, Long amount) {
-        return transactionRepository.save(
-                Transaction.builder()
-                        .transactionType(transactionType)
-                        .transactionResultType(transactionResultType)
-                        .account(account)
-                        .amount(amount)
-                        .balanceSnapshot(account.getBalance())
-                        .transactionId(UUID.randomUUID().toString().replace("-", ""))
-                        .transactedAt(LocalDateTime.now())
-                        .build()
-        );
+        // ܾ ٲ     ĳø Ŀ Ŀ Ѵ.
+        accountCache.evictAccountsByUser(account.getAccountUser().getId());
+
+        Transaction transaction = transactionRepository.save(
+                buildTransaction(transactionType, transactionResultType, account, amount,
+                        LocalDateTime.now()));
+
+        //  ŷ  Ƿ Ŀ  ٷ ĳÿ ÷д.
+        transactionCache.put(TransactionDto.fromEntity(transaction));
+
+        return transaction;
+    }
+
+    private Transaction buildTransaction(
+            TransactionType transactionType,
+            TransactionResultType transactionResultType, Account account, Long amount,
+            LocalDateTime transactedAt) {
+        return buildTransaction(transactionType, transactionResultType, account, amount,
+                account.getBalance(), transactedAt);
+    }
+
+    private Transaction buildTransaction(
+            TransactionType transactionType,
+            TransactionResultType transactionResultType, Account account, Long amount,
+            Long balanceSnapshot, LocalDateTime transactedAt) {
+        return Transaction.builder()
+                .transactionType(transactionType)
+                .transactionResultType(transactionResultType)
+                .account(account)
+                .amount(amount)
+                .balanceSnapshot(balanceSnapshot)
+                .transactionId(transactionIdGenerator.nextId())
+                .transactedAt(transactedAt)
+                .build();
+    }
+
+    // ܾ (ϰ)
+    //  û ϳ Ʈǿ óϰ, ŷ    flush batch insert Ѵ.
+    // ϳ ϸ ü ѹǰ,    @Version   Ѵ.
+    @Transactional
+    public List<TransactionDto> useBalanceBatch(List<UseBalance.Request> requests) {
+        Map<Long, AccountUser> users = new HashMap<>();
+        Map<String, Account> accounts = new HashMap<>();
+        List<Transaction> transactions = new ArrayList<>(requests.size());
+
+        for (UseBalance.Request request : requests) {
+            // ڰ  
+            AccountUser user = users.computeIfAbsent(request.getUserId(),
+                    userId -> accountUserRepository.findById(userId)
+                            .orElseThrow(() -> new AccountException(USER_NOT_FOUND)));
+
+            // °  
+            Account account = accounts.computeIfAbsent(request.getAccountNumber(),
+                    accountNumber -> accountRepository.findByAccountNumber(accountNumber)
+                            .orElseThrow(() -> new AccountException(ACCOUNT_NOT_FOUND)));
+
+            // ڿ  ġ
+            if (!Objects.equals(user.getId(), account.getAccountUser().getId())) {
+                throw new AccountException(USER_ACCOUNT_UN_MATCH);
+            }
+
+            // ̹  , ŷ ݾ ܾ ʰ
+            validateUseBalance(account, request.getAmount());
+
+            account.useBalance(request.getAmount());
+            transactions.add(buildTransaction(USE, S, account, request.getAmount(),
+                    LocalDateTime.now()));
+        }
+
+        accounts.values().forEach(account ->
+                accountCache.evictAccountsByUser(account.getAccountUser().getId()));
+
+        return transactionRepository.saveAll(transactions).stream()
+                .map(TransactionDto::fromEntity)
+                .collect(Collectors.toList());
+    }
+
+    // ܾ /(  ϰ ó)
+    // ¸   ȸϰ û  ޸𸮿 Ѵ.
+    //  û ܾ ٲ ʰ  ܸ ,  û  óѴ.
+    // Ŀ   UPDATE   ŷ  batch insert ȴ.
+    @Transactional
+    public List<LedgerBatch.Result> applyLedgerBatch(String accountNumber,
+                                                     List<LedgerBatch.Command> commands) {
+        fence(accountNumber);
+
+        // °  
+        Account account = accountRepository.findByAccountNumber(accountNumber)
+                .orElseThrow(() -> new AccountException(ACCOUNT_NOT_FOUND));
+
+        List<Transaction> transactions = new ArrayList<>(commands.size());
+        List<LedgerBatch.Result> results = new ArrayList<>(commands.size());
+        for (LedgerBatch.Command command : commands) {
+            try {
+                Transaction transaction = command.getTransactionType() == USE
+                        ? applyLedgerUse(account, command)
+                        : applyLedgerCancel(account, command);
+                transactions.add(transaction);
+                results.add(LedgerBatch.Result.success(TransactionDto.fromEntity(transaction)));
+            } catch (AccountException e) {
+                results.add(LedgerBatch.Result.failure(e));
+            }
+        }
+
+        if (!transactions.isEmpty()) {
+            transactionRepository.saveAll(transactions);
+            transactions.forEach(transaction ->
+                    transactionCache.put(TransactionDto.fromEntity(transaction)));
+            accountCache.evictAccountsByUser(account.getAccountUser().getId());
+        }
+
+        return results;
+    }
+
+    //   ϰ ó - ܾ 
+    private Transaction applyLedgerUse(Account account, LedgerBatch.Command command) {
+        // ڰ  , ڿ  ġ
+        if (!Objects.equals(command.getUserId(), account.getAccountUser().getId())) {
+            throw new AccountException(accountUserRepository.existsById(command.getUserId())
+                    ? USER_ACCOUNT_UN_MATCH : USER_NOT_FOUND);
+        }
+
+        // ̹  , ŷ ݾ ܾ ʰ
+        validateUseBalance(account, command.getAmount());
+
+        account.useBalance(command.getAmount());
+
+        return buildTransaction(USE, S, account, command.getAmount(), LocalDateTime.now());
+    }
+
+    //   ϰ ó - ܾ  
+    private Transaction applyLedgerCancel(Account account, LedgerBatch.Command command) {
+        // ŷ  
+        TransactionDto transaction = findTransaction(command.getTransactionId());
+
+        // ŷ  ġ, κ  Ұ
+        validateCancelBalance(transaction, account, command.getAmount(), account.getBalance());
+
+        account.cancelBalance(command.getAmount());
+
+        return buildTransaction(CANCEL, S, account, command.getAmount(), LocalDateTime.now());
     }
 
     // ܾ  
@@ -102,16 +334,21 @@ public class TransactionService {
             String transactionId,
             String accountNumber,
             Long amount) {
+        fence(accountNumber);
+
+        if (concurrencyMode == CONDITIONAL_UPDATE) {
+            return cancelBalanceConditionally(transactionId, accountNumber, amount);
+        }
+
         // ŷ  
-        Transaction transaction = transactionRepository.findByTransactionId(transactionId)
-                .orElseThrow(() -> new AccountException(TRANSACTION_NOT_FOUND));
+        TransactionDto transaction = findTransaction(transactionId);
 
         // °  
         Account account = accountRepository.findByAccountNumber(accountNumber)
                 .orElseThrow(() -> new AccountException(ACCOUNT_NOT_FOUND));
 
         // ŷ  ġ, κ  Ұ
-        validateCancelBalance(transaction, account, amount);
+        validateCancelBalance(transaction, account, amount, account.getBalance());
 
         account.cancelBalance(amount);
 
@@ -119,31 +356,114 @@ public class TransactionService {
                 saveAndGetTransaction(CANCEL, S, account, amount));
     }
 
+    // ܾ  (Ǻ UPDATE)
+    private TransactionDto cancelBalanceConditionally(
+            String transactionId,
+            String accountNumber,
+            Long amount) {
+        // ŷ  
+        TransactionDto transaction = findTransaction(transactionId);
+
+        // °  
+        if (accountRepository.increaseBalance(accountNumber, amount) == 0) {
+            throw new AccountException(ACCOUNT_NOT_FOUND);
+        }
+
+        // þ ܾ ܾ  ϱ  UPDATE Ŀ ȸѴ.
+        Account account = accountRepository.findByAccountNumber(accountNumber)
+                .orElseThrow(() -> new AccountException(ACCOUNT_NOT_FOUND));
+
+        // ŷ  ġ, κ  Ұ - ܰ ߻ϸ ܾ 浵 ѹȴ.
+        validateCancelBalance(transaction, account, amount, account.getBalance() - amount);
+
+        return TransactionDto.fromEntity(
+                saveAndGetTransaction(CANCEL, S, account, amount));
+    }
+
     // ܾ   - ŷ  ġ, κ  Ұ
-    private void validateCancelBalance(Transaction transaction, Account account, Long amount) {
+    // balance Ұ ݿ  ܾ, ϸ  ŷ ܾ  ȴ.
+    private void validateCancelBalance(TransactionDto transaction, Account account,
+                                       Long amount, Long balance) {
         // ŷ  ġ
-        if (!Objects.equals(transaction.getAccount().getId(), account.getId())) {
-            throw new AccountException(TRANSACTION_ACCOUNT_UN_MATCH);
+        if (!Objects.equals(transaction.getAccountNumber(), account.getAccountNumber())) {
+            throw new AccountException(TRANSACTION_ACCOUNT_UN_MATCH, balance);
         }
 
         // κ  Ұ
         if (!Objects.equals(transaction.getAmount(), amount)) {
-            throw new AccountException(CANCEL_MUST_FULLY);
+            throw new AccountException(CANCEL_MUST_FULLY, balance);
         }
     }
 
+    // ŷ Ȯ
+    public TransactionDto queryTransaction(String transactionId) {
+        return findTransaction(transactionId);
+    }
+
+    //   ŷ  ȸ
+    // OFFSET   ȸ ŷ (ŷ Ͻ, id) Ŀ ؼ,   ٽ  ʴ´.
+    // ȸ Ⱓ [from, to) ̰,   ü Ⱓ ȸѴ.
     @Transactional
-    public void saveFailedCancelTransaction(String accountNumber, Long amount) {
-        Account account = accountRepository.findByAccountNumber(accountNumber)
+    public TransactionHistory.Page getTransactionHistory(String accountNumber,
+                                                         String after,
+                                                         LocalDateTime from,
+                                                         LocalDateTime to,
+                                                         int size) {
+        // °  
+        Long accountId = accountRepository.findIdByAccountNumber(accountNumber)
                 .orElseThrow(() -> new AccountException(ACCOUNT_NOT_FOUND));
 
-        saveAndGetTransaction(CANCEL, F, account, amount);
+        // ù  ȸ Ⱓ (to,  ) Ŀ Ѵ.
+        LocalDateTime cursorAt = to == null ? HISTORY_MAX_TRANSACTED_AT : to;
+        long cursorId = Long.MIN_VALUE;
+        if (after != null) {
+            // Ŀ  ߸ 
+            int separator = after.lastIndexOf(HISTORY_CURSOR_SEPARATOR);
+            LocalDateTime afterAt;
+            long afterId;
+            try {
+                afterAt = LocalDateTime.parse(after.substring(0, separator));
+                afterId = Long.parseLong(after.substring(separator + 1));
+            } catch (RuntimeException e) {
+                throw new AccountException(INVALID_REQUEST);
+            }
+
+            if (afterAt.isBefore(cursorAt)) {
+                cursorAt = afterAt;
+                cursorId = afterId;
+            }
+        }
+
+        int pageSize = Math.min(Math.max(size, 1), MAX_HISTORY_PAGE_SIZE);
+        List<TransactionHistory> transactions = from == null
+                ? transactionRepository.findHistory(accountId, cursorAt, cursorId, PageRequest.of(0, pageSize))
+                : transactionRepository.findHistorySince(accountId, cursorAt, cursorId, from,
+                PageRequest.of(0, pageSize));
+
+        //  ä  ȸ Ⱓ ȿ  ŷ Ƿ  Ŀ ȯ ʴ´.
+        String nextCursor = null;
+        if (transactions.size() == pageSize) {
+            TransactionHistory last = transactions.get(transactions.size() - 1);
+            nextCursor = last.getTransactedAt() + HISTORY_CURSOR_SEPARATOR + last.getId();
+        }
+
+        return TransactionHistory.Page.builder()
+                .accountNumber(accountNumber)
+                .transactions(transactions)
+                .nextCursor(nextCursor)
+                .build();
     }
 
-    // ŷ Ȯ
-    public TransactionDto queryTransaction(String transactionId) {
-        // ŷ  
-        return TransactionDto.fromEntity(transactionRepository.findByTransactionId(transactionId)
-                .orElseThrow(() -> new AccountException(TRANSACTION_NOT_FOUND)));
+    // ŷ ȸ - ĳÿ  DB ȸؼ ĳÿ Ѵ.
+    private TransactionDto findTransaction(String transactionId) {
+        return transactionCache.get(transactionId)
+                .orElseGet(() -> {
+                    // ŷ  
+                    TransactionDto transactionDto = TransactionDto.fromEntity(
+                            transactionRepository.findByTransactionId(transactionId)
+                                    .orElseThrow(() -> new AccountException(TRANSACTION_NOT_FOUND)));
+                    transactionCache.put(transactionDto);
+                    return transactionDto;
+                });
     }
 }
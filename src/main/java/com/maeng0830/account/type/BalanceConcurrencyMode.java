@@ -0,0 +1,7 @@
+package com.maeng0830.account.type;
+
+public enum BalanceConcurrencyMode {
+    LOCK, // 계좌 락(@AccountLock)으로 잔액 변경을 직렬화
+    OPTIMISTIC, // 계좌 락 없이 @Version 충돌 시 재시도
+    CONDITIONAL_UPDATE // 계좌 락 없이 조건부 UPDATE 한 문장으로 잔액 변경
+}
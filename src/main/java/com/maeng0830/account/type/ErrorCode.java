@@ -19,7 +19,15 @@ public enum ErrorCode {
     USER_ACCOUNT_UN_MATCH("사용자와 계좌의 소유주가 다릅니다."),
     ACCOUNT_ALREADY_UNREGISTERED("계좌가 이미 해지되었습니다."),
     BALANCE_NOT_EMPTY("잔액이 있는 계좌는 해지할 수 없습니다."),
-    MAX_ACCOUNT_PER_USER_10("사용자 최대 계좌는 10개입니다.");
+    MAX_ACCOUNT_PER_USER_10("사용자 최대 계좌는 10개입니다."),
+    STALE_LOCK_TOKEN("락 보유 기간이 만료된 요청입니다."),
+    TOO_MANY_TRANSACTION_REQUESTS("처리 대기 중인 거래 요청이 너무 많습니다."),
+    IDEMPOTENT_REQUEST_IN_PROGRESS("같은 멱등 키로 처리 중인 요청이 있습니다."),
+    ACCOUNT_NUMBER_EXHAUSTED("발급할 수 있는 계좌 번호가 없습니다."),
+    TRANSACTION_REQUEST_TIMEOUT("거래 요청의 처리 결과를 기다리는 시간이 초과되었습니다."),
+    TRANSACTION_PROCESSOR_STOPPED("거래 처리기가 종료되어 요청을 처리할 수 없습니다."),
+    IDEMPOTENCY_KEY_REUSED("같은 멱등 키로 내용이 다른 요청이 들어왔습니다."),
+    CONCURRENT_BALANCE_UPDATE("같은 계좌의 잔액이 동시에 변경되어 처리하지 못했습니다. 다시 시도해주세요.");
 
     private final String description;
 }
@@ -0,0 +1,6 @@
+package com.maeng0830.account.type;
+
+public enum ExecutionMode {
+    PLATFORM, // Tomcat 기본 스레드 풀
+    VIRTUAL // 요청마다 가상 스레드(JDK 21 이상)
+}
@@ -0,0 +1,8 @@
+package com.maeng0830.account.type;
+
+public enum LockMode {
+    LOCAL, // JVM 내부 락만 사용
+    DISTRIBUTED, // Redis 분산 락만 사용
+    HYBRID, // JVM 내부 락으로 먼저 직렬화한 뒤 Redis 분산 락 사용
+    DATABASE // 계좌 행을 SELECT ... FOR UPDATE로 잠금, 트랜잭션이 끝날 때 해제
+}
@@ -1,8 +1,8 @@
 package com.maeng0830.account.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.maeng0830.account.domain.Account;
 import com.maeng0830.account.dto.AccountDto;
+import com.maeng0830.account.dto.AccountListing;
 import com.maeng0830.account.dto.CreateAccount;
 import com.maeng0830.account.dto.DeleteAccount;
 import com.maeng0830.account.exception.AccountException;
@@ -15,17 +15,27 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
+import java.util.function.Consumer;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(AccountController.class)
@@ -117,7 +127,7 @@ class AccountControllerTest {
     void successGetAccount() throws Exception {
         // given
         given(accountService.getAccount(anyLong()))
-                .willReturn(Account.builder()
+                .willReturn(AccountDto.builder()
                         .accountNumber("3456")
                         .accountStatus(AccountStatus.IN_USE)
                         .build());
@@ -145,4 +155,54 @@ class AccountControllerTest {
                 .andExpect(jsonPath("$.errorMessage").value("계좌가 없습니다."))
                 .andExpect(status().isOk());
     }
-}
\ No newline at end of file
+
+    @Test
+    void successGetAccountListings() throws Exception {
+        // given
+        given(accountService.getAccountListings(eq(10L), anyInt(), eq(Arrays.asList(1L, 2L))))
+                .willReturn(AccountListing.Page.builder()
+                        .accounts(Arrays.asList(
+                                AccountListing.builder().id(11L).userId(1L).accountNumber("1111111111").build(),
+                                AccountListing.builder().id(12L).userId(2L).accountNumber("2222222222").build()))
+                        .nextCursor(12L)
+                        .build());
+        // when
+
+        // then
+        mockMvc.perform(get("/accounts?cursor=10&size=2&user_ids=1,2"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accounts[0].accountNumber").value("1111111111"))
+                .andExpect(jsonPath("$.accounts[1].userId").value(2))
+                .andExpect(jsonPath("$.nextCursor").value(12));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void successExportAccounts() throws Exception {
+        // given
+        willAnswer(invocation -> {
+            Consumer<AccountListing> consumer = invocation.getArgument(1);
+            consumer.accept(AccountListing.builder().id(1L).accountNumber("1111111111").build());
+            consumer.accept(AccountListing.builder().id(2L).accountNumber("2222222222").build());
+            return null;
+        }).given(accountService).exportAccounts(isNull(), any(Consumer.class));
+
+        // when
+        MvcResult result = mockMvc.perform(get("/accounts/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // then
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andReturn().getResponse().getContentAsString();
+        String[] lines = body.split("\n");
+        assertEquals(2, lines.length);
+        assertEquals("1111111111",
+                objectMapper.readValue(lines[0], AccountListing.class).getAccountNumber());
+        assertEquals("2222222222",
+                objectMapper.readValue(lines[1], AccountListing.class).getAccountNumber());
+    }
+}
@@ -2,10 +2,15 @@ package com.maeng0830.account.controller;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.maeng0830.account.domain.Account;
 import com.maeng0830.account.dto.AccountDto;
 import com.maeng0830.account.dto.CancelBalance;
 import com.maeng0830.account.dto.TransactionDto;
+import com.maeng0830.account.dto.TransactionHistory;
 import com.maeng0830.account.dto.UseBalance;
+import com.maeng0830.account.service.AsyncTransactionService;
+import com.maeng0830.account.service.FailedTransactionRecorder;
+import com.maeng0830.account.service.HotAccountLedger;
 import com.maeng0830.account.service.TransactionService;
 import com.maeng0830.account.type.TransactionType;
 import org.junit.jupiter.api.Test;
@@ -13,22 +18,32 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
+import static com.maeng0830.account.type.ErrorCode.CONCURRENT_BALANCE_UPDATE;
 import static com.maeng0830.account.type.TransactionResultType.S;
 import static com.maeng0830.account.type.TransactionType.USE;
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.BDDMockito.given;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(TransactionController.class)
@@ -36,6 +51,15 @@ class TransactionControllerTest {
     @MockBean
     private TransactionService transactionService;
 
+    @MockBean
+    private AsyncTransactionService asyncTransactionService;
+
+    @MockBean
+    private FailedTransactionRecorder failedTransactionRecorder;
+
+    @MockBean
+    private HotAccountLedger hotAccountLedger;
+
     @Autowired
     private MockMvc mockMvc;
 
@@ -70,6 +94,56 @@ class TransactionControllerTest {
                 .andExpect(jsonPath("$.amount").value(12345));
     }
 
+    @Test
+    void failUseBalanceWhenOptimisticLockRetriesExhausted() throws Exception {
+        // given
+        given(transactionService.useBalance(anyLong(), anyString(), anyLong()))
+                .willThrow(new ObjectOptimisticLockingFailureException(Account.class, 1L));
+        // when
+
+        // then
+        mockMvc.perform(post("/transaction/use")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                        new UseBalance.Request(1L, "2000000000", 3000L)
+                                )
+                        )
+                ).andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.errorCode").value(CONCURRENT_BALANCE_UPDATE.name()));
+    }
+
+    @Test
+    void successUseBalanceAsync() throws Exception {
+        // given
+        given(asyncTransactionService.useBalance(any()))
+                .willReturn(CompletableFuture.completedFuture(UseBalance.Response.from(TransactionDto.builder()
+                        .accountNumber("1000000000")
+                        .transactedAt(LocalDateTime.now())
+                        .amount(12345L)
+                        .transactionId("transactionId")
+                        .transactionResultType(S)
+                        .build())));
+        // when
+        MvcResult mvcResult = mockMvc.perform(post("/transaction/use/async")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                        new UseBalance.Request(1L, "2000000000", 3000L)
+                                )
+                        )
+                ).andExpect(request().asyncStarted())
+                .andReturn();
+
+        // then
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accountNumber").value("1000000000"))
+                .andExpect(jsonPath("$.transactionResult").value("S"))
+                .andExpect(jsonPath("$.transactionId").value("transactionId"))
+                .andExpect(jsonPath("$.amount").value(12345));
+    }
+
     @Test
     void successCancelBalance() throws Exception {
         // given
@@ -134,4 +208,36 @@ class TransactionControllerTest {
                 .andExpect(jsonPath("$.transactionId").value("transactionIdForCancel"))
                 .andExpect(jsonPath("$.amount").value(54321));
     }
-}
\ No newline at end of file
+
+    @Test
+    void successGetTransactionHistory() throws Exception {
+        // given
+        given(transactionService.getTransactionHistory(eq("1000000000"), eq("2022-10-01T12:00_30"),
+                eq(LocalDateTime.of(2022, 9, 1, 0, 0)), isNull(), anyInt()))
+                .willReturn(TransactionHistory.Page.builder()
+                        .accountNumber("1000000000")
+                        .transactions(Arrays.asList(
+                                TransactionHistory.builder()
+                                        .id(29L)
+                                        .transactionId("0000000000000029")
+                                        .transactionType(USE)
+                                        .transactionResultType(S)
+                                        .amount(1000L)
+                                        .build()))
+                        .nextCursor("2022-10-01T11:00_29")
+                        .build());
+
+        // when
+
+        // then
+        mockMvc.perform(get("/account/1000000000/transactions")
+                        .param("after", "2022-10-01T12:00_30")
+                        .param("from", "2022-09-01T00:00:00"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accountNumber").value("1000000000"))
+                .andExpect(jsonPath("$.transactions[0].transactionId").value("0000000000000029"))
+                .andExpect(jsonPath("$.transactions[0].transactionType").value("USE"))
+                .andExpect(jsonPath("$.nextCursor").value("2022-10-01T11:00_29"));
+    }
+}
@@ -0,0 +1,230 @@
+package com.maeng0830.account.repository;
+
+import com.maeng0830.account.domain.Account;
+import com.maeng0830.account.domain.AccountUser;
+import com.maeng0830.account.domain.Transaction;
+import com.maeng0830.account.dto.AccountDto;
+import com.maeng0830.account.dto.ReconciliationReport;
+import com.maeng0830.account.dto.TransactionDto;
+import com.maeng0830.account.dto.TransactionHistory;
+import com.maeng0830.account.type.TransactionResultType;
+import com.maeng0830.account.type.TransactionType;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static com.maeng0830.account.type.AccountStatus.IN_USE;
+import static com.maeng0830.account.type.TransactionResultType.F;
+import static com.maeng0830.account.type.TransactionResultType.S;
+import static com.maeng0830.account.type.TransactionType.CANCEL;
+import static com.maeng0830.account.type.TransactionType.USE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// 조회 한 번에 실행되는 SQL 개수 확인
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class RepositoryStatementCountTest {
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    private Long userId;
+
+    @BeforeEach
+    void setUp() {
+        // data.sql로 등록된 사용자
+        AccountUser user = entityManager.find(AccountUser.class, 1L);
+        userId = user.getId();
+
+        for (int i = 0; i < 3; i++) {
+            Account account = entityManager.persist(Account.builder()
+                    .accountUser(user)
+                    .accountNumber("100000000" + i)
+                    .accountStatus(IN_USE)
+                    .balance(10000L)
+                    .build());
+
+            entityManager.persist(Transaction.builder()
+                    .account(account)
+                    .transactionType(USE)
+                    .transactionResultType(S)
+                    .transactionId("000000000000000" + i)
+                    .amount(1000L)
+                    .balanceSnapshot(9000L)
+                    .transactedAt(LocalDateTime.now())
+                    .build());
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    @DisplayName("계좌 번호로 계좌 조회 - 사용자는 조회하지 않음")
+    void findByAccountNumber() {
+        // when
+        Account account = accountRepository.findByAccountNumber("1000000000").get();
+
+        // then
+        assertEquals(userId, account.getAccountUser().getId());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    @DisplayName("계좌 번호와 소유자 id로 계좌 조회 - 사용자 테이블은 조회하지 않음")
+    void findByAccountNumberAndAccountUserId() {
+        // when
+        boolean owned = accountRepository.findByAccountNumberAndAccountUser_Id("1000000000", userId)
+                .isPresent();
+        boolean notOwned = accountRepository.findByAccountNumberAndAccountUser_Id("1000000000", userId + 1)
+                .isPresent();
+
+        // then
+        assertTrue(owned);
+        assertFalse(notOwned);
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityStatistics(AccountUser.class.getName()).getLoadCount());
+    }
+
+    @Test
+    @DisplayName("정산 재확인 - 잔액과 성공 거래로 계산한 잔액을 한 번에 조회")
+    void findReconciliationBalance() {
+        // given
+        Account account = entityManager.persist(Account.builder()
+                .accountUser(entityManager.find(AccountUser.class, userId))
+                .accountNumber("1000000009")
+                .accountStatus(IN_USE)
+                .initialBalance(10000L)
+                .balance(7000L)
+                .build());
+        persistTransaction(account, USE, S, 2000L, "0000000000000009");
+        persistTransaction(account, CANCEL, S, 500L, "000000000000000a");
+        persistTransaction(account, USE, F, 300L, "000000000000000b"); // 실패 거래는 잔액을 바꾸지 않는다.
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+
+        // when
+        ReconciliationReport.Mismatch balance =
+                accountRepository.findReconciliationBalance(account.getId()).get();
+
+        // then
+        assertEquals("1000000009", balance.getAccountNumber());
+        assertEquals(8500L, balance.getExpectedBalance());
+        assertEquals(7000L, balance.getBalance());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    @DisplayName("거래 id로 거래 조회 - 계좌를 함께 조회")
+    void findByTransactionId() {
+        // when
+        TransactionDto transactionDto = TransactionDto.fromEntity(
+                transactionRepository.findByTransactionId("0000000000000001").get());
+
+        // then
+        assertEquals("1000000001", transactionDto.getAccountNumber());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    @DisplayName("사용자의 계좌 목록 조회 - 계좌 수와 관계없이 한 번만 조회")
+    void findAccountDtosByUserId() {
+        // when
+        List<AccountDto> accounts = accountRepository.findAccountDtosByUserId(userId);
+
+        // then
+        assertEquals(3, accounts.size());
+        assertEquals(userId, accounts.get(0).getUserId());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    @DisplayName("계좌 별 거래 내역 - 커서 이후, 조회 기간 시작 이후의 거래를 최신순으로 조회")
+    void findHistory() {
+        // given
+        Account account = accountRepository.findByAccountNumber("1000000000").get();
+        LocalDateTime base = LocalDateTime.of(2022, 10, 1, 12, 0);
+        for (int i = 0; i < 5; i++) {
+            entityManager.persist(Transaction.builder()
+                    .account(account)
+                    .transactionType(USE)
+                    .transactionResultType(S)
+                    .transactionId("00000000000001" + i + "0")
+                    .amount(100L)
+                    .balanceSnapshot(9000L)
+                    .transactedAt(base.plusMinutes(i / 2)) // 같은 일시의 거래는 id로 구분한다.
+                    .build());
+        }
+        // 조회 기간 이전의 거래
+        entityManager.persist(Transaction.builder()
+                .account(account)
+                .transactionType(USE)
+                .transactionResultType(S)
+                .transactionId("0000000000000090")
+                .amount(100L)
+                .balanceSnapshot(9000L)
+                .transactedAt(base.minusMinutes(1))
+                .build());
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+        LocalDateTime to = base.plusDays(1);
+
+        // when
+        List<TransactionHistory> first = transactionRepository.findHistorySince(
+                account.getId(), to, Long.MIN_VALUE, base, PageRequest.of(0, 3));
+        TransactionHistory last = first.get(first.size() - 1);
+        List<TransactionHistory> second = transactionRepository.findHistorySince(
+                account.getId(), last.getTransactedAt(), last.getId(), base, PageRequest.of(0, 3));
+        List<TransactionHistory> unbounded = transactionRepository.findHistory(
+                account.getId(), last.getTransactedAt(), last.getId(), PageRequest.of(0, 3));
+
+        // then
+        assertEquals(3, first.size());
+        assertEquals(2, second.size());
+        assertEquals("0000000000000140", first.get(0).getTransactionId());
+        assertEquals("0000000000000120", first.get(2).getTransactionId());
+        assertEquals("0000000000000110", second.get(0).getTransactionId());
+        assertEquals("0000000000000100", second.get(1).getTransactionId());
+        assertEquals(3, unbounded.size());
+        assertEquals("0000000000000090", unbounded.get(2).getTransactionId());
+        assertEquals(3, statistics.getPrepareStatementCount());
+    }
+
+    private void persistTransaction(Account account, TransactionType transactionType,
+                                    TransactionResultType transactionResultType,
+                                    Long amount, String transactionId) {
+        entityManager.persist(Transaction.builder()
+                .account(account)
+                .transactionType(transactionType)
+                .transactionResultType(transactionResultType)
+                .transactionId(transactionId)
+                .amount(amount)
+                .transactedAt(LocalDateTime.now())
+                .build());
+    }
+}
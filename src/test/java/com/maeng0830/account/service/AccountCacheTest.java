@@ -0,0 +1,77 @@
+package com.maeng0830.account.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collections;
+
+import static com.maeng0830.account.service.AccountCache.ACCOUNTS_BY_USER;
+import static org.junit.jupiter.api.Assertions.*;
+
+class AccountCacheTest {
+    private final ConcurrentMapCacheManager cacheManager =
+            new ConcurrentMapCacheManager(ACCOUNTS_BY_USER);
+
+    private final AccountCache accountCache = new AccountCache(cacheManager);
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void evictWithoutTransaction() {
+        // given
+        Cache cache = cacheManager.getCache(ACCOUNTS_BY_USER);
+        cache.put(12L, Collections.emptyList());
+
+        // when
+        accountCache.evictAccountsByUser(12L);
+
+        // then
+        assertNull(cache.get(12L));
+    }
+
+    @Test
+    @DisplayName("트랜잭션 안에서는 커밋된 이후에 캐시를 제거함")
+    void evictAfterCommit() {
+        // given
+        Cache cache = cacheManager.getCache(ACCOUNTS_BY_USER);
+        cache.put(12L, Collections.emptyList());
+        TransactionSynchronizationManager.initSynchronization();
+
+        // when
+        accountCache.evictAccountsByUser(12L);
+
+        // then
+        assertNotNull(cache.get(12L));
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(TransactionSynchronization::afterCommit);
+        assertNull(cache.get(12L));
+    }
+
+    @Test
+    @DisplayName("롤백되면 캐시를 제거하지 않음")
+    void keepOnRollback() {
+        // given
+        Cache cache = cacheManager.getCache(ACCOUNTS_BY_USER);
+        cache.put(12L, Collections.emptyList());
+        TransactionSynchronizationManager.initSynchronization();
+
+        // when
+        accountCache.evictAccountsByUser(12L);
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(synchronization -> synchronization.afterCompletion(
+                        TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        // then
+        assertNotNull(cache.get(12L));
+    }
+}
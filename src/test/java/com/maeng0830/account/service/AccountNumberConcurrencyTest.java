@@ -0,0 +1,124 @@
+package com.maeng0830.account.service;
+
+import com.maeng0830.account.repository.AccountRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.redisson.api.RedissonClient;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// 내장 Redis를 띄운 상태에서 동시에 계좌를 만들고, 발급된 계좌 번호가 겹치지 않는지 확인한다.
+// 구간 크기를 작게 줄여서 발급 중에 Redis INCRBY로 다음 구간을 여러 번 선점하도록 한다.
+// 다른 테스트와 Redis 포트와 H2 DB를 나누고, 끝나면 컨텍스트를 닫는다.
+@DirtiesContext
+@SpringBootTest(properties = {
+        "account.reconciliation.cron=-",
+        "account.number.block-size=4",
+        "spring.redis.port=16383",
+        "spring.datasource.url=jdbc:h2:mem:accountnumber"
+})
+class AccountNumberConcurrencyTest {
+    private static final int THREADS = 64;
+    // 사용자 당 계좌는 최대 10개이므로 사용자 USERS명에게 나눠서 만든다.
+    private static final long USERS = 8L;
+    private static final long FIRST_USER_ID = 1_000L;
+    private static final int ACCOUNTS_PER_THREAD = 100;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private AccountNumberAllocator accountNumberAllocator;
+
+    @Autowired
+    private RedissonClient redissonClient;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("64개 스레드에서 동시에 계좌를 생성해도 계좌 번호가 겹치지 않음")
+    void createAccountConcurrently() throws Exception {
+        // given
+        jdbcTemplate.update("insert into account_user(id, name, created_at, updated_at) " +
+                        "select x, concat('user', x), now(), now() from system_range(?, ?)",
+                FIRST_USER_ID, FIRST_USER_ID + USERS - 1);
+        Set<String> accountNumbers = ConcurrentHashMap.newKeySet();
+
+        // when
+        runConcurrently(i -> () -> {
+            accountNumbers.add(accountService.createAccount(
+                    FIRST_USER_ID + i % USERS, 1000L).getAccountNumber());
+            return null;
+        });
+
+        // then
+        assertEquals(THREADS, accountNumbers.size());
+        assertEquals(THREADS, jdbcTemplate.queryForObject(
+                "select count(distinct account_number) from account where account_user_id between ? and ?",
+                Integer.class, FIRST_USER_ID, FIRST_USER_ID + USERS - 1));
+    }
+
+    @Test
+    @DisplayName("같은 Redis를 사용하는 다른 노드와 동시에 발급해도 계좌 번호가 겹치지 않음")
+    void allocateConcurrentlyWithAnotherNode() throws Exception {
+        // given
+        AccountNumberAllocator anotherNode =
+                new RedisAccountNumberAllocator(redissonClient, accountRepository, 4L);
+        Set<String> accountNumbers = ConcurrentHashMap.newKeySet();
+
+        // when
+        runConcurrently(i -> () -> {
+            AccountNumberAllocator allocator = i % 2 == 0 ? accountNumberAllocator : anotherNode;
+            for (int j = 0; j < ACCOUNTS_PER_THREAD; j++) {
+                accountNumbers.add(allocator.allocate());
+            }
+            return null;
+        });
+
+        // then
+        assertEquals(THREADS * ACCOUNTS_PER_THREAD, accountNumbers.size());
+    }
+
+    private static void runConcurrently(TaskFactory taskFactory) throws Exception {
+        ExecutorService executorService = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            Callable<?> task = taskFactory.create(i);
+            futures.add(executorService.submit(() -> {
+                start.await();
+                return task.call();
+            }));
+        }
+        start.countDown();
+        executorService.shutdown();
+        assertTrue(executorService.awaitTermination(60, TimeUnit.SECONDS));
+        for (Future<?> future : futures) {
+            future.get();
+        }
+    }
+
+    private interface TaskFactory {
+        Callable<?> create(int index);
+    }
+}
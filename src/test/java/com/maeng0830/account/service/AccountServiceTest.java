@@ -3,6 +3,7 @@ package com.maeng0830.account.service;
 import com.maeng0830.account.domain.Account;
 import com.maeng0830.account.domain.AccountUser;
 import com.maeng0830.account.dto.AccountDto;
+import com.maeng0830.account.dto.AccountListing;
 import com.maeng0830.account.exception.AccountException;
 import com.maeng0830.account.repository.AccountUserRepository;
 import com.maeng0830.account.type.AccountStatus;
@@ -15,10 +16,15 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
 
 import static com.maeng0830.account.type.ErrorCode.ACCOUNT_ALREADY_UNREGISTERED;
 import static com.maeng0830.account.type.ErrorCode.USER_NOT_FOUND;
@@ -36,6 +42,12 @@ class AccountServiceTest {
     @Mock
     private AccountUserRepository accountUserRepository;
 
+    @Mock
+    private AccountNumberAllocator accountNumberAllocator;
+
+    @Mock
+    private AccountCache accountCache;
+
     @InjectMocks
     private AccountService accountService;
 
@@ -49,9 +61,8 @@ class AccountServiceTest {
         given(accountUserRepository.findById(anyLong()))
                 .willReturn(Optional.of(user));
 
-        given(accountRepository.findFirstByOrderByIdDesc())
-                .willReturn(Optional.of(Account.builder()
-                        .accountNumber("1000000012").build()));
+        given(accountNumberAllocator.allocate())
+                .willReturn("1000000013");
 
         given(accountRepository.save(any())).
                 willReturn(Account.builder()
@@ -78,8 +89,8 @@ class AccountServiceTest {
         given(accountUserRepository.findById(anyLong()))
                 .willReturn(Optional.of(user));
 
-        given(accountRepository.findFirstByOrderByIdDesc())
-                .willReturn(Optional.empty());
+        given(accountNumberAllocator.allocate())
+                .willReturn("1000000000");
 
         given(accountRepository.save(any())).
                 willReturn(Account.builder()
@@ -163,6 +174,7 @@ class AccountServiceTest {
         assertEquals(12L, accountDto.getUserId());
         assertEquals("1000000012", captor.getValue().getAccountNumber());
         assertEquals(AccountStatus.UNREGISTERED, captor.getValue().getAccountStatus());
+        verify(accountCache, times(1)).evictAccountsByUser(12L);
     }
 
     @Test
@@ -290,38 +302,32 @@ class AccountServiceTest {
     @Test
     void successGetAccountsByUserId() {
         // given
-        AccountUser pobi = AccountUser.builder()
-                .id(12L)
-                .name("Pobi").build();
-
-        List<Account> accounts = Arrays.asList(
-                Account.builder()
-                        .accountUser(pobi)
+        List<AccountDto> accounts = Arrays.asList(
+                AccountDto.builder()
+                        .userId(12L)
                         .accountNumber("1111111111")
                         .balance(1000L)
                         .build(),
-                Account.builder()
-                        .accountUser(pobi)
+                AccountDto.builder()
+                        .userId(12L)
                         .accountNumber("2222222222")
                         .balance(2000L)
                         .build(),
-                Account.builder()
-                        .accountUser(pobi)
+                AccountDto.builder()
+                        .userId(12L)
                         .accountNumber("3333333333")
                         .balance(3000L)
                         .build()
         );
 
-        given(accountUserRepository.findById(anyLong()))
-                .willReturn(Optional.of(pobi));
-
-        given(accountRepository.findByAccountUser(any()))
+        given(accountRepository.findAccountDtosByUserId(anyLong()))
                 .willReturn(accounts);
 
         // when
         List<AccountDto> accountsDtos = accountService.getAccountsByUserId(1L);
 
         // then
+        verify(accountUserRepository, times(0)).existsById(anyLong());
         assertEquals(3, accountsDtos.size());
         assertEquals("1111111111", accountsDtos.get(0).getAccountNumber());
         assertEquals(1000, accountsDtos.get(0).getBalance());
@@ -334,8 +340,10 @@ class AccountServiceTest {
     @Test
     void failedToGetAccounts() {
         // given
-        given(accountUserRepository.findById(anyLong()))
-                .willReturn(Optional.empty());
+        given(accountRepository.findAccountDtosByUserId(anyLong()))
+                .willReturn(Collections.emptyList());
+        given(accountUserRepository.existsById(anyLong()))
+                .willReturn(false);
 
         // when
         AccountException exception = assertThrows(AccountException.class,
@@ -344,4 +352,63 @@ class AccountServiceTest {
         // then
         assertEquals(USER_NOT_FOUND, exception.getErrorCode());
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("페이지가 가득 차면 마지막 계좌 id를 다음 커서로 반환")
+    void getAccountListingsReturnsNextCursor() {
+        // given
+        given(accountRepository.findListingsAfter(anyLong(), any(Pageable.class)))
+                .willReturn(Arrays.asList(
+                        AccountListing.builder().id(11L).accountNumber("1111111111").build(),
+                        AccountListing.builder().id(12L).accountNumber("2222222222").build()));
+
+        // when
+        AccountListing.Page page = accountService.getAccountListings(10L, 2, null);
+
+        // then
+        ArgumentCaptor<Pageable> captor = ArgumentCaptor.forClass(Pageable.class);
+        verify(accountRepository, times(1)).findListingsAfter(eq(10L), captor.capture());
+        assertEquals(2, captor.getValue().getPageSize());
+        assertEquals(2, page.getAccounts().size());
+        assertEquals(12L, page.getNextCursor());
+    }
+
+    @Test
+    @DisplayName("마지막 페이지이면 다음 커서가 없고, 페이지 크기는 최대 1000으로 제한")
+    void getAccountListingsLastPage() {
+        // given
+        given(accountRepository.findListingsAfterByUserIds(anyLong(), anyCollection(), any(Pageable.class)))
+                .willReturn(Collections.singletonList(
+                        AccountListing.builder().id(3L).userId(1L).build()));
+
+        // when
+        AccountListing.Page page = accountService.getAccountListings(null, 5000, Arrays.asList(1L, 2L));
+
+        // then
+        ArgumentCaptor<Pageable> captor = ArgumentCaptor.forClass(Pageable.class);
+        verify(accountRepository, times(1))
+                .findListingsAfterByUserIds(eq(0L), eq(Arrays.asList(1L, 2L)), captor.capture());
+        assertEquals(1000, captor.getValue().getPageSize());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    @DisplayName("계좌 내보내기 후 스트림을 닫음")
+    void exportAccountsClosesStream() {
+        // given
+        AtomicBoolean closed = new AtomicBoolean();
+        given(accountRepository.streamAllListings())
+                .willReturn(Stream.of(
+                        AccountListing.builder().id(1L).build(),
+                        AccountListing.builder().id(2L).build())
+                        .onClose(() -> closed.set(true)));
+        List<AccountListing> exported = new ArrayList<>();
+
+        // when
+        accountService.exportAccounts(Collections.emptyList(), exported::add);
+
+        // then
+        assertEquals(2, exported.size());
+        assertTrue(closed.get());
+    }
+}
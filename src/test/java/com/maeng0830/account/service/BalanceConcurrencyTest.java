@@ -0,0 +1,143 @@
+package com.maeng0830.account.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.boot.test.context.SpringBootTest.WebEnvironment.RANDOM_PORT;
+
+// 한 계좌에 동시에 잔액 사용 요청을 보내고, 계좌 락 없이 처리하는 모드에서도 최종 잔액과 거래 수가 맞는지 확인한다.
+// 모드 별로 컨텍스트를 따로 띄우기 때문에 Redis 포트와 H2 DB를 나누고, 끝나면 컨텍스트를 닫는다.
+class BalanceConcurrencyTest {
+    private static final int THREADS = 16;
+    private static final int USES_PER_THREAD = 10;
+    private static final long INITIAL_BALANCE = 100_000L;
+    private static final long AMOUNT = 100L;
+    private static final ParameterizedTypeReference<Map<String, Object>> RESPONSE_TYPE =
+            new ParameterizedTypeReference<Map<String, Object>>() {
+            };
+
+    @Nested
+    @DirtiesContext
+    @SpringBootTest(webEnvironment = RANDOM_PORT, properties = {
+            "account.reconciliation.cron=-",
+            "account.balance.concurrency-mode=OPTIMISTIC",
+            // 모든 요청이 성공할 때까지 재시도하도록 충분히 늘린다.
+            "account.balance.optimistic.max-attempts=100",
+            "account.balance.optimistic.backoff=1",
+            "spring.redis.port=16381",
+            "spring.datasource.url=jdbc:h2:mem:optimistic"
+    })
+    class Optimistic {
+        @Autowired
+        private TestRestTemplate restTemplate;
+
+        @Autowired
+        private AccountService accountService;
+
+        @Autowired
+        private JdbcTemplate jdbcTemplate;
+
+        @Test
+        @DisplayName("@Version 충돌을 재시도해서 동시 사용이 모두 반영됨")
+        void useBalanceConcurrently() throws Exception {
+            assertConcurrentUse(restTemplate, accountService, jdbcTemplate);
+        }
+    }
+
+    @Nested
+    @DirtiesContext
+    @SpringBootTest(webEnvironment = RANDOM_PORT, properties = {
+            "account.reconciliation.cron=-",
+            "account.balance.concurrency-mode=CONDITIONAL_UPDATE",
+            "spring.redis.port=16382",
+            "spring.datasource.url=jdbc:h2:mem:conditional"
+    })
+    class ConditionalUpdate {
+        @Autowired
+        private TestRestTemplate restTemplate;
+
+        @Autowired
+        private AccountService accountService;
+
+        @Autowired
+        private JdbcTemplate jdbcTemplate;
+
+        @Test
+        @DisplayName("조건부 UPDATE로 동시 사용이 모두 반영됨")
+        void useBalanceConcurrently() throws Exception {
+            assertConcurrentUse(restTemplate, accountService, jdbcTemplate);
+        }
+    }
+
+    private static void assertConcurrentUse(TestRestTemplate restTemplate,
+                                            AccountService accountService,
+                                            JdbcTemplate jdbcTemplate) throws Exception {
+        // given
+        String accountNumber = accountService.createAccount(1L, INITIAL_BALANCE).getAccountNumber();
+        Map<String, Object> request = new HashMap<>();
+        request.put("userId", 1L);
+        request.put("accountNumber", accountNumber);
+        request.put("amount", AMOUNT);
+
+        AtomicInteger failures = new AtomicInteger();
+        ExecutorService executorService = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+
+        // when
+        for (int i = 0; i < THREADS; i++) {
+            futures.add(executorService.submit(() -> {
+                start.await();
+                for (int j = 0; j < USES_PER_THREAD; j++) {
+                    ResponseEntity<Map<String, Object>> response = restTemplate.exchange(
+                            "/transaction/use", HttpMethod.POST, new HttpEntity<>(request), RESPONSE_TYPE);
+                    if (!response.getStatusCode().is2xxSuccessful()
+                            || response.getBody() == null
+                            || response.getBody().containsKey("errorCode")) {
+                        failures.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        executorService.shutdown();
+        assertTrue(executorService.awaitTermination(60, TimeUnit.SECONDS));
+        for (Future<?> future : futures) {
+            future.get();
+        }
+
+        // then
+        int uses = THREADS * USES_PER_THREAD;
+        assertEquals(0, failures.get());
+        assertEquals(INITIAL_BALANCE - uses * AMOUNT, jdbcTemplate.queryForObject(
+                "select balance from account where account_number = ?", Long.class, accountNumber));
+        assertEquals(uses, jdbcTemplate.queryForObject(
+                "select count(*) from transaction t join account a on t.account_id = a.id" +
+                        " where a.account_number = ? and t.transaction_type = 'USE'" +
+                        " and t.transaction_result_type = 'S'", Integer.class, accountNumber));
+    }
+}
@@ -0,0 +1,173 @@
+package com.maeng0830.account.service;
+
+import com.maeng0830.account.domain.Account;
+import com.maeng0830.account.exception.AccountException;
+import com.maeng0830.account.repository.AccountRepository;
+import com.maeng0830.account.type.ErrorCode;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.TransactionSystemException;
+import org.springframework.transaction.UnexpectedRollbackException;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class DatabaseLockServiceTest {
+    @Mock
+    private AccountRepository accountRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private TransactionStatus transactionStatus;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private DatabaseLockService lockService;
+
+    @BeforeEach
+    void setUp() {
+        lockService = new DatabaseLockService(accountRepository, transactionManager, meterRegistry);
+        given(transactionManager.getTransaction(any()))
+                .willReturn(transactionStatus);
+    }
+
+    @Test
+    @DisplayName("계좌 행을 잠그고 unlock에서 커밋함")
+    void successGetLock() {
+        // given
+        given(accountRepository.findForUpdateByAccountNumber(anyString()))
+                .willReturn(Optional.of(Account.builder().accountNumber("1000000000").build()));
+
+        // when
+        Long fencingToken = lockService.lock("1000000000", 1000L, -1L);
+        lockService.unlock("1000000000");
+
+        // then
+        assertNull(fencingToken);
+        verify(accountRepository).findForUpdateByAccountNumber("1000000000");
+        verify(transactionManager).commit(transactionStatus);
+        verify(transactionManager, never()).rollback(any());
+        assertEquals(1L, meterRegistry.timer("account.lock.hold", "mode", "DATABASE").count());
+    }
+
+    @Test
+    @DisplayName("락을 잡은 뒤 작업이 실패했으면 unlock에서 롤백 예외를 전달함")
+    void failUnlockWhenRollbackOnly() {
+        // given
+        given(accountRepository.findForUpdateByAccountNumber(anyString()))
+                .willReturn(Optional.of(Account.builder().accountNumber("1000000000").build()));
+        willThrow(new UnexpectedRollbackException("Transaction rolled back because it has been marked as rollback-only"))
+                .given(transactionManager).commit(transactionStatus);
+
+        // when
+        lockService.lock("1000000000", 1000L, -1L);
+
+        // then
+        assertThrows(UnexpectedRollbackException.class,
+                () -> lockService.unlock("1000000000"));
+    }
+
+    @Test
+    @DisplayName("계좌가 없으면 트랜잭션을 바로 롤백하고 unlock에서 커밋하지 않음")
+    void rollbackWhenAccountNotFound() {
+        // given
+        given(accountRepository.findForUpdateByAccountNumber(anyString()))
+                .willReturn(Optional.empty());
+
+        // when
+        lockService.lock("1000000000", 1000L, -1L);
+        lockService.unlock("1000000000");
+
+        // then
+        verify(transactionManager).rollback(transactionStatus);
+        verify(transactionManager, never()).commit(any());
+    }
+
+    @Test
+    @DisplayName("없는 계좌로 두 스레드가 동시에 lock해도 각자 unlock함")
+    void concurrentLockOnMissingAccount() throws Exception {
+        // given
+        given(accountRepository.findForUpdateByAccountNumber(anyString()))
+                .willReturn(Optional.empty());
+        CountDownLatch locked = new CountDownLatch(2);
+
+        // when
+        Runnable task = () -> {
+            lockService.lock("1000000000", 1000L, -1L);
+            locked.countDown();
+            try {
+                locked.await(1, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            lockService.unlock("1000000000");
+        };
+        CompletableFuture.allOf(CompletableFuture.runAsync(task), CompletableFuture.runAsync(task))
+                .get(5, TimeUnit.SECONDS);
+
+        // then
+        verify(transactionManager, times(2)).rollback(transactionStatus);
+        verify(transactionManager, never()).commit(any());
+    }
+
+    @Test
+    @DisplayName("락 타임아웃이면 트랜잭션을 롤백하고 실패함")
+    void failGetLock() {
+        // given
+        given(accountRepository.findForUpdateByAccountNumber(anyString()))
+                .willThrow(new CannotAcquireLockException("Timeout trying to lock table"));
+
+        // when
+        AccountException exception = assertThrows(AccountException.class,
+                () -> lockService.lock("1000000000", 1000L, -1L));
+
+        // then
+        assertEquals(ErrorCode.ACCOUNT_TRANSACTION_LOCK, exception.getErrorCode());
+        verify(transactionManager).rollback(transactionStatus);
+        assertEquals(1.0, meterRegistry.counter("account.lock.failures",
+                "reason", "database_timeout").count());
+        assertEquals(1L, meterRegistry.timer("account.lock.wait",
+                "mode", "DATABASE", "result", "failed").count());
+    }
+
+    @Test
+    @DisplayName("락 타임아웃 후 롤백이 실패해도 락 실패로 처리함")
+    void failGetLockWhenRollbackFails() {
+        // given
+        given(accountRepository.findForUpdateByAccountNumber(anyString()))
+                .willThrow(new PessimisticLockingFailureException("Timeout trying to lock table"));
+        willThrow(new TransactionSystemException("Could not roll back JPA transaction"))
+                .given(transactionManager).rollback(transactionStatus);
+
+        // when
+        AccountException exception = assertThrows(AccountException.class,
+                () -> lockService.lock("1000000000", 1000L, -1L));
+
+        // then
+        assertEquals(ErrorCode.ACCOUNT_TRANSACTION_LOCK, exception.getErrorCode());
+    }
+}
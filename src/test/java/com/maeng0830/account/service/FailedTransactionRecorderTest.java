@@ -0,0 +1,133 @@
+package com.maeng0830.account.service;
+
+import com.maeng0830.account.dto.FailedTransaction;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static com.maeng0830.account.type.TransactionType.CANCEL;
+import static com.maeng0830.account.type.TransactionType.USE;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class FailedTransactionRecorderTest {
+    @Mock
+    private TransactionService transactionService;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    @DisplayName("종료 시 큐에 남은 실패 거래를 모두 저장함")
+    void flushOnShutdown() throws InterruptedException {
+        // given
+        List<FailedTransaction> saved = new ArrayList<>();
+        willAnswer(invocation -> saved.addAll(invocation.getArgument(0)))
+                .given(transactionService).saveFailedTransactions(anyList());
+
+        FailedTransactionRecorder recorder =
+                new FailedTransactionRecorder(transactionService, meterRegistry, 100, 10);
+        recorder.start();
+
+        // when
+        for (int i = 0; i < 25; i++) {
+            recorder.record(i % 2 == 0 ? USE : CANCEL, "1000000000", 1000L, 5000L);
+        }
+        recorder.shutdown();
+
+        // then
+        assertEquals(25, saved.size());
+        assertTrue(saved.stream().allMatch(failedTransaction ->
+                failedTransaction.getBalanceSnapshot() == 5000L));
+        assertEquals(0, recorder.getQueueDepth());
+        assertEquals(0, recorder.getDroppedCount());
+    }
+
+    @Test
+    @DisplayName("큐가 가득 차면 실패 거래를 버리고 dropped 카운터를 증가시킴")
+    void dropWhenQueueIsFull() throws InterruptedException {
+        // given
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        willAnswer(invocation -> {
+            writing.countDown();
+            release.await();
+            return null;
+        }).given(transactionService).saveFailedTransactions(anyList());
+
+        FailedTransactionRecorder recorder =
+                new FailedTransactionRecorder(transactionService, meterRegistry, 2, 1);
+        recorder.start();
+
+        // when
+        recorder.record(USE, "1000000000", 1000L, 5000L);
+        assertTrue(writing.await(5, TimeUnit.SECONDS));
+        recorder.record(USE, "1000000000", 1000L, 5000L);
+        recorder.record(USE, "1000000000", 1000L, 5000L);
+        recorder.record(USE, "1000000000", 1000L, 5000L);
+
+        // then
+        assertEquals(2, recorder.getQueueDepth());
+        assertEquals(1, recorder.getDroppedCount());
+        assertEquals(2.0, meterRegistry.get("account.failed.transaction.queue.depth").gauge().value());
+        assertEquals(1.0, meterRegistry.get("account.failed.transaction.dropped").functionCounter().count());
+
+        release.countDown();
+        recorder.shutdown();
+    }
+
+    @Test
+    @DisplayName("종료 이후에 들어온 실패 거래는 큐에 넣지 않고 dropped 카운터를 증가시킴")
+    void dropAfterShutdown() throws InterruptedException {
+        // given
+        FailedTransactionRecorder recorder =
+                new FailedTransactionRecorder(transactionService, meterRegistry, 100, 10);
+        recorder.start();
+        recorder.shutdown();
+
+        // when
+        recorder.record(USE, "1000000000", 1000L, 5000L);
+
+        // then
+        verify(transactionService, never()).saveFailedTransactions(anyList());
+        assertEquals(0, recorder.getQueueDepth());
+        assertEquals(1, recorder.getDroppedCount());
+        assertEquals(1.0, meterRegistry.get("account.failed.transaction.dropped").functionCounter().count());
+    }
+
+    @Test
+    @DisplayName("저장 중에 종료해도 저장을 인터럽트하지 않음")
+    void shutdownWithoutInterrupt() throws InterruptedException {
+        // given
+        // 인터럽트되면 sleep에서 예외가 발생해서 저장 실패(dropped)로 집계된다.
+        CountDownLatch writing = new CountDownLatch(1);
+        willAnswer(invocation -> {
+            writing.countDown();
+            Thread.sleep(200L);
+            return null;
+        }).given(transactionService).saveFailedTransactions(anyList());
+
+        FailedTransactionRecorder recorder =
+                new FailedTransactionRecorder(transactionService, meterRegistry, 100, 10);
+        recorder.start();
+
+        // when
+        recorder.record(USE, "1000000000", 1000L, 5000L);
+        assertTrue(writing.await(5, TimeUnit.SECONDS));
+        recorder.shutdown();
+
+        // then
+        assertEquals(0, recorder.getDroppedCount());
+    }
+}
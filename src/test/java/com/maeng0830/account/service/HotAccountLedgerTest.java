@@ -0,0 +1,262 @@
+package com.maeng0830.account.service;
+
+import com.maeng0830.account.dto.LedgerBatch;
+import com.maeng0830.account.dto.TransactionDto;
+import com.maeng0830.account.exception.AccountException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.maeng0830.account.type.ErrorCode.ACCOUNT_TRANSACTION_LOCK;
+import static com.maeng0830.account.type.ErrorCode.AMOUNT_EXCEED_BALANCE;
+import static com.maeng0830.account.type.ErrorCode.TRANSACTION_PROCESSOR_STOPPED;
+import static com.maeng0830.account.type.ErrorCode.TRANSACTION_REQUEST_TIMEOUT;
+import static com.maeng0830.account.type.TransactionResultType.S;
+import static com.maeng0830.account.type.TransactionType.USE;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.atMost;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class HotAccountLedgerTest {
+    private static final String HOT_ACCOUNT = "1000000000";
+    private static final int THREADS = 32;
+    private static final int REQUESTS_PER_THREAD = 50;
+    private static final int MAX_BATCH_SIZE = 200;
+
+    @Mock
+    private TransactionService transactionService;
+
+    @Mock
+    private LockService lockService;
+
+    private HotAccountLedger hotAccountLedger;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (hotAccountLedger != null) {
+            hotAccountLedger.shutdown();
+        }
+    }
+
+    @Test
+    void isHotAccount() {
+        // given
+        hotAccountLedger = newLedger();
+
+        // then
+        assertTrue(hotAccountLedger.isHotAccount(HOT_ACCOUNT));
+        assertFalse(hotAccountLedger.isHotAccount("1000000001"));
+    }
+
+    @Test
+    @DisplayName("동시에 들어온 요청을 배치로 묶어서 처리하고, 각 요청은 자신의 결과를 받음")
+    void useBalanceConcurrently() throws InterruptedException {
+        // given
+        AtomicLong balance = new AtomicLong(THREADS * REQUESTS_PER_THREAD * 100L / 2);
+        AtomicInteger batches = new AtomicInteger();
+        given(transactionService.applyLedgerBatch(eq(HOT_ACCOUNT), anyList()))
+                .willAnswer(invocation -> {
+                    batches.incrementAndGet();
+                    List<LedgerBatch.Command> commands = invocation.getArgument(1);
+                    List<LedgerBatch.Result> results = new ArrayList<>();
+                    for (LedgerBatch.Command command : commands) {
+                        if (balance.get() < command.getAmount()) {
+                            results.add(LedgerBatch.Result.failure(
+                                    new AccountException(AMOUNT_EXCEED_BALANCE)));
+                            continue;
+                        }
+                        results.add(LedgerBatch.Result.success(TransactionDto.builder()
+                                .transactionType(USE)
+                                .transactionResultType(S)
+                                .amount(command.getAmount())
+                                .balanceSnapshot(balance.addAndGet(-command.getAmount()))
+                                .build()));
+                    }
+                    return results;
+                });
+
+        hotAccountLedger = newLedger();
+        AtomicInteger succeeded = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        ExecutorService executorService = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+
+        // when
+        for (int i = 0; i < THREADS; i++) {
+            executorService.submit(() -> {
+                start.await();
+                for (int j = 0; j < REQUESTS_PER_THREAD; j++) {
+                    try {
+                        assertEquals(100L, hotAccountLedger.useBalance(12L, HOT_ACCOUNT, 100L)
+                                .getAmount());
+                        succeeded.incrementAndGet();
+                    } catch (AccountException e) {
+                        assertEquals(AMOUNT_EXCEED_BALANCE, e.getErrorCode());
+                        failed.incrementAndGet();
+                    }
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        executorService.shutdown();
+        assertTrue(executorService.awaitTermination(30, TimeUnit.SECONDS));
+
+        // then
+        assertEquals(THREADS * REQUESTS_PER_THREAD / 2, succeeded.get());
+        assertEquals(THREADS * REQUESTS_PER_THREAD / 2, failed.get());
+        assertEquals(0L, balance.get());
+        // 배치는 최대 MAX_BATCH_SIZE개씩 묶이고, 요청이 하나씩 처리되지 않고 묶여야 한다.
+        assertTrue(batches.get() >= THREADS * REQUESTS_PER_THREAD / MAX_BATCH_SIZE);
+        assertTrue(batches.get() < THREADS * REQUESTS_PER_THREAD);
+        verify(lockService, atMost(batches.get())).lock(eq(HOT_ACCOUNT), anyLong(), eq(-1L));
+    }
+
+    @Test
+    @DisplayName("배치 전체가 실패하면 모든 요청이 같은 예외를 받음")
+    void batchFailure() {
+        // given
+        given(lockService.lock(eq(HOT_ACCOUNT), anyLong(), eq(-1L)))
+                .willThrow(new AccountException(
+                        ACCOUNT_TRANSACTION_LOCK));
+        hotAccountLedger = newLedger();
+
+        // when
+        AccountException exception = assertThrows(AccountException.class,
+                () -> hotAccountLedger.useBalance(12L, HOT_ACCOUNT, 100L));
+
+        // then
+        assertEquals(ACCOUNT_TRANSACTION_LOCK,
+                exception.getErrorCode());
+    }
+
+    @Test
+    @DisplayName("배치 처리 중 Error가 발생해도 요청이 실패를 받고, worker는 다음 요청을 처리함")
+    void batchError() {
+        // given
+        given(transactionService.applyLedgerBatch(eq(HOT_ACCOUNT), anyList()))
+                .willThrow(new StackOverflowError())
+                .willReturn(Collections.singletonList(LedgerBatch.Result.success(
+                        TransactionDto.builder().amount(100L).build())));
+        hotAccountLedger = newLedger();
+
+        // when
+        assertThrows(StackOverflowError.class,
+                () -> hotAccountLedger.useBalance(12L, HOT_ACCOUNT, 100L));
+        TransactionDto transactionDto = hotAccountLedger.useBalance(12L, HOT_ACCOUNT, 100L);
+
+        // then
+        assertEquals(100L, transactionDto.getAmount());
+    }
+
+    @Test
+    @DisplayName("큐에서 제한 시간이 지난 요청은 반영하지 않고 실패함")
+    void awaitTimeout() throws Exception {
+        // given
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        given(transactionService.applyLedgerBatch(eq(HOT_ACCOUNT), anyList()))
+                .willAnswer(invocation -> {
+                    started.countDown();
+                    release.await();
+                    return Collections.singletonList(LedgerBatch.Result.success(
+                            TransactionDto.builder().amount(100L).build()));
+                });
+        hotAccountLedger = newLedger(100L);
+        CompletableFuture<TransactionDto> inProgress = CompletableFuture.supplyAsync(
+                () -> hotAccountLedger.useBalance(12L, HOT_ACCOUNT, 100L));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        // when
+        AccountException exception;
+        try {
+            exception = assertThrows(AccountException.class,
+                    () -> hotAccountLedger.useBalance(12L, HOT_ACCOUNT, 200L));
+        } finally {
+            release.countDown();
+        }
+
+        // then
+        assertEquals(TRANSACTION_REQUEST_TIMEOUT, exception.getErrorCode());
+        assertEquals(100L, inProgress.get(5, TimeUnit.SECONDS).getAmount());
+        verify(transactionService, times(1)).applyLedgerBatch(eq(HOT_ACCOUNT), anyList());
+    }
+
+    @Test
+    @DisplayName("배치에 포함된 요청은 제한 시간이 지나도 결과를 기다림")
+    void awaitInProgressBeyondTimeout() throws Exception {
+        // given
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        given(transactionService.applyLedgerBatch(eq(HOT_ACCOUNT), anyList()))
+                .willAnswer(invocation -> {
+                    started.countDown();
+                    release.await();
+                    return Collections.singletonList(LedgerBatch.Result.success(
+                            TransactionDto.builder().amount(100L).build()));
+                });
+        hotAccountLedger = newLedger(100L);
+
+        // when
+        CompletableFuture<TransactionDto> inProgress = CompletableFuture.supplyAsync(
+                () -> hotAccountLedger.useBalance(12L, HOT_ACCOUNT, 100L));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        Thread.sleep(300L);
+        boolean doneBeforeRelease = inProgress.isDone();
+        release.countDown();
+
+        // then
+        assertFalse(doneBeforeRelease);
+        assertEquals(100L, inProgress.get(5, TimeUnit.SECONDS).getAmount());
+    }
+
+    @Test
+    @DisplayName("종료된 이후의 요청은 받지 않음")
+    void rejectAfterShutdown() throws InterruptedException {
+        // given
+        hotAccountLedger = newLedger();
+        hotAccountLedger.shutdown();
+
+        // when
+        AccountException exception = assertThrows(AccountException.class,
+                () -> hotAccountLedger.useBalance(12L, HOT_ACCOUNT, 100L));
+
+        // then
+        assertEquals(TRANSACTION_PROCESSOR_STOPPED, exception.getErrorCode());
+        verify(transactionService, never()).applyLedgerBatch(eq(HOT_ACCOUNT), anyList());
+    }
+
+    private HotAccountLedger newLedger() {
+        return newLedger(5000L);
+    }
+
+    private HotAccountLedger newLedger(long awaitTimeoutMillis) {
+        HotAccountLedger ledger = new HotAccountLedger(transactionService, lockService,
+                new SimpleMeterRegistry(), Collections.singleton(HOT_ACCOUNT), 10000, MAX_BATCH_SIZE,
+                1000L, awaitTimeoutMillis);
+        ledger.start();
+        return ledger;
+    }
+}
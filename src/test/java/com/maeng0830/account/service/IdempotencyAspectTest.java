@@ -0,0 +1,97 @@
+package com.maeng0830.account.service;
+
+import com.maeng0830.account.aop.Idempotent;
+import com.maeng0830.account.dto.UseBalance;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyAspectTest {
+    @Mock
+    private IdempotencyStore idempotencyStore;
+
+    @Mock
+    private ProceedingJoinPoint proceedingJoinPoint;
+
+    @Mock
+    private MethodSignature methodSignature;
+
+    @Mock
+    private Idempotent idempotent;
+
+    @InjectMocks
+    private IdempotencyAspect idempotencyAspect;
+
+    @Test
+    void proceedWithoutIdempotencyKey() throws Throwable {
+        // given
+        UseBalance.Response response = UseBalance.Response.builder().build();
+        given(proceedingJoinPoint.proceed()).willReturn(response);
+
+        // when
+        Object result = idempotencyAspect.aroundMethod(proceedingJoinPoint, idempotent,
+                new UseBalance.Request(1L, "1000000000", 1000L));
+
+        // then
+        assertSame(response, result);
+        verify(idempotencyStore, never()).execute(anyString(), any(), any(), any());
+    }
+
+    @Test
+    void executeOnceWithIdempotencyKey() throws Throwable {
+        // given
+        UseBalance.Response response = UseBalance.Response.builder().build();
+        given(proceedingJoinPoint.getSignature()).willReturn(methodSignature);
+        given(methodSignature.getName()).willReturn("useBalance");
+        given(methodSignature.getReturnType()).willReturn(UseBalance.Response.class);
+        given(idempotencyStore.execute(anyString(), any(), any(), any())).willReturn(response);
+
+        // when
+        Object result = idempotencyAspect.aroundMethod(proceedingJoinPoint, idempotent,
+                new UseBalance.Request(1L, "1000000000", 1000L, "retry-1"));
+
+        // then
+        assertSame(response, result);
+        verify(idempotencyStore).execute(eq("useBalance:1000000000:retry-1"),
+                any(UseBalance.Request.class), eq(UseBalance.Response.class), any());
+        verify(proceedingJoinPoint, never()).proceed();
+    }
+
+    @Test
+    void executeOnceForAsyncMethod() throws Throwable {
+        // given
+        UseBalance.Response response = UseBalance.Response.builder().build();
+        given(proceedingJoinPoint.getSignature()).willReturn(methodSignature);
+        given(methodSignature.getName()).willReturn("useBalance");
+        given(methodSignature.getReturnType()).willReturn(CompletableFuture.class);
+        given(methodSignature.getMethod()).willReturn(
+                AsyncTransactionService.class.getMethod("useBalance", UseBalance.Request.class));
+        given(proceedingJoinPoint.proceed()).willReturn(CompletableFuture.completedFuture(response));
+        given(idempotencyStore.execute(anyString(), any(), any(), any()))
+                .willAnswer(invocation -> invocation.<IdempotencyStore.Invocation>getArgument(3).proceed());
+
+        // when
+        Object result = idempotencyAspect.aroundMethod(proceedingJoinPoint, idempotent,
+                new UseBalance.Request(1L, "1000000000", 1000L, "retry-1"));
+
+        // then
+        assertSame(response, ((CompletableFuture<?>) result).get());
+        verify(idempotencyStore).execute(eq("useBalance:1000000000:retry-1"),
+                any(UseBalance.Request.class), eq(UseBalance.Response.class), any());
+    }
+}
@@ -0,0 +1,219 @@
+package com.maeng0830.account.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.maeng0830.account.dto.UseBalance;
+import com.maeng0830.account.exception.AccountException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.redisson.api.RBucket;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.Codec;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.maeng0830.account.service.IdempotencyStore.IDEMPOTENT_RESPONSES;
+import static com.maeng0830.account.type.ErrorCode.AMOUNT_EXCEED_BALANCE;
+import static com.maeng0830.account.type.ErrorCode.IDEMPOTENCY_KEY_REUSED;
+import static com.maeng0830.account.type.ErrorCode.IDEMPOTENT_REQUEST_IN_PROGRESS;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.endsWith;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyStoreTest {
+    private static final String KEY = "useBalance:1000000000:retry-1";
+    private static final UseBalance.Request REQUEST =
+            new UseBalance.Request(1L, "1000000000", 1000L, "retry-1");
+
+    @Mock
+    private RedissonClient redissonClient;
+
+    @Mock
+    private RBucket<String> bucket;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    private IdempotencyStore idempotencyStore;
+
+    @BeforeEach
+    void setUp() {
+        idempotencyStore = new IdempotencyStore(
+                new ConcurrentMapCacheManager(IDEMPOTENT_RESPONSES),
+                redissonClient, objectMapper, Duration.ofMinutes(10), 100L);
+        given(redissonClient.<String>getBucket(anyString(), any(Codec.class)))
+                .willReturn(bucket);
+    }
+
+    @Test
+    @DisplayName("동시에 들어온 중복 요청은 한 번만 처리하고 같은 응답을 반환")
+    void concurrentDuplicates() throws Throwable {
+        // given
+        given(bucket.trySet(anyString(), anyLong(), any()))
+                .willReturn(true);
+        AtomicInteger invocations = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        int threads = 16;
+        ExecutorService executorService = Executors.newFixedThreadPool(threads);
+
+        // when
+        List<Future<Object>> futures = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            futures.add(executorService.submit(() -> {
+                start.await();
+                return execute(() -> {
+                    invocations.incrementAndGet();
+                    Thread.sleep(50);
+                    return UseBalance.Response.builder()
+                            .transactionId("0000000000000001")
+                            .build();
+                });
+            }));
+        }
+        start.countDown();
+        executorService.shutdown();
+        assertTrue(executorService.awaitTermination(10, TimeUnit.SECONDS));
+
+        // then
+        assertEquals(1, invocations.get());
+        Object first = futures.get(0).get();
+        for (Future<Object> future : futures) {
+            assertSame(first, future.get());
+        }
+        verify(bucket, times(1)).trySet(anyString(), anyLong(), any());
+        verify(bucket, times(1)).set(anyString(), anyLong(), any());
+
+        // 처리가 끝난 뒤의 재요청은 Redis도 확인하지 않는다.
+        assertSame(first, idempotencyStore.execute(KEY, REQUEST, UseBalance.Response.class,
+                () -> fail("should not be invoked")));
+        verify(bucket, times(1)).trySet(anyString(), anyLong(), any());
+    }
+
+    @Test
+    @DisplayName("다른 인스턴스가 처리한 요청은 Redis에 저장된 응답을 반환")
+    void responseFromOtherInstance() throws Throwable {
+        // given
+        given(bucket.trySet(anyString(), anyLong(), any()))
+                .willReturn(false);
+        given(bucket.get())
+                .willReturn(idempotencyStore.fingerprint(REQUEST)
+                        + ":{\"accountNumber\":\"1000000000\",\"transactionId\":\"0000000000000001\",\"amount\":1000}");
+
+        // when
+        UseBalance.Response response = (UseBalance.Response) idempotencyStore.execute(
+                KEY, REQUEST, UseBalance.Response.class, () -> fail("should not be invoked"));
+
+        // then
+        assertEquals("0000000000000001", response.getTransactionId());
+        assertEquals(1000L, response.getAmount());
+    }
+
+    @Test
+    @DisplayName("다른 인스턴스가 처리 중인 요청은 기다려도 끝나지 않으면 실패")
+    void inProgressOnOtherInstance() throws Exception {
+        // given
+        given(bucket.trySet(anyString(), anyLong(), any()))
+                .willReturn(false);
+        given(bucket.get())
+                .willReturn(idempotencyStore.fingerprint(REQUEST) + ":IN_PROGRESS");
+
+        // when
+        AccountException exception = assertThrows(AccountException.class,
+                () -> idempotencyStore.execute(KEY, REQUEST, UseBalance.Response.class,
+                        () -> fail("should not be invoked")));
+
+        // then
+        assertEquals(IDEMPOTENT_REQUEST_IN_PROGRESS, exception.getErrorCode());
+    }
+
+    @Test
+    @DisplayName("실패한 요청은 저장하지 않아서 같은 키로 다시 처리할 수 있음")
+    void failedRequestIsNotStored() throws Throwable {
+        // given
+        given(bucket.trySet(anyString(), anyLong(), any()))
+                .willReturn(true);
+
+        // when
+        AccountException exception = assertThrows(AccountException.class,
+                () -> idempotencyStore.execute(KEY, REQUEST, UseBalance.Response.class, () -> {
+                    throw new AccountException(AMOUNT_EXCEED_BALANCE);
+                }));
+        Object retried = idempotencyStore.execute(KEY, REQUEST, UseBalance.Response.class,
+                () -> UseBalance.Response.builder().transactionId("0000000000000002").build());
+
+        // then
+        assertEquals(AMOUNT_EXCEED_BALANCE, exception.getErrorCode());
+        verify(bucket, times(1)).delete();
+        assertEquals("0000000000000002", ((UseBalance.Response) retried).getTransactionId());
+        verify(bucket, never()).set(endsWith(":IN_PROGRESS"), anyLong(), any());
+    }
+
+    @Test
+    @DisplayName("같은 키로 내용이 다른 요청은 처음 응답을 반환하지 않고 거절")
+    void rejectReusedKeyWithDifferentRequest() throws Throwable {
+        // given
+        given(bucket.trySet(anyString(), anyLong(), any()))
+                .willReturn(true);
+        idempotencyStore.execute(KEY, REQUEST, UseBalance.Response.class,
+                () -> UseBalance.Response.builder().transactionId("0000000000000001").build());
+
+        // when
+        AccountException exception = assertThrows(AccountException.class,
+                () -> idempotencyStore.execute(KEY,
+                        new UseBalance.Request(1L, "1000000000", 2000L, "retry-1"),
+                        UseBalance.Response.class, () -> fail("should not be invoked")));
+
+        // then
+        assertEquals(IDEMPOTENCY_KEY_REUSED, exception.getErrorCode());
+    }
+
+    @Test
+    @DisplayName("다른 인스턴스에 같은 키로 내용이 다른 요청이 저장되어 있으면 거절")
+    void rejectReusedKeyFromOtherInstance() throws Exception {
+        // given
+        given(bucket.trySet(anyString(), anyLong(), any()))
+                .willReturn(false);
+        given(bucket.get())
+                .willReturn(idempotencyStore.fingerprint(
+                        new UseBalance.Request(1L, "1000000000", 2000L, "retry-1"))
+                        + ":{\"transactionId\":\"0000000000000001\"}");
+
+        // when
+        AccountException exception = assertThrows(AccountException.class,
+                () -> idempotencyStore.execute(KEY, REQUEST, UseBalance.Response.class,
+                        () -> fail("should not be invoked")));
+
+        // then
+        assertEquals(IDEMPOTENCY_KEY_REUSED, exception.getErrorCode());
+        verify(bucket, never()).delete();
+    }
+
+    private Object execute(IdempotencyStore.Invocation invocation) throws Exception {
+        try {
+            return idempotencyStore.execute(KEY, REQUEST, UseBalance.Response.class, invocation);
+        } catch (Exception | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
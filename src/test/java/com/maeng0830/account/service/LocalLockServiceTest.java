@@ -0,0 +1,65 @@
+package com.maeng0830.account.service;
+
+import com.maeng0830.account.exception.AccountException;
+import com.maeng0830.account.type.ErrorCode;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LocalLockServiceTest {
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private LocalLockService lockService;
+
+    @BeforeEach
+    void setUp() {
+        lockService = new LocalLockService(new StripedAccountLock(16), meterRegistry);
+    }
+
+    @Test
+    @DisplayName("락 대기 시간과 보유 시간을 기록함")
+    void recordWaitAndHoldTime() throws InterruptedException {
+        // given
+        // when
+        Long fencingToken = lockService.lock("123", 1000L, -1L);
+        Thread.sleep(20L);
+        lockService.unlock("123");
+
+        // then
+        assertNull(fencingToken);
+        assertEquals(1L, meterRegistry.timer("account.lock.wait",
+                "mode", "LOCAL", "result", "acquired").count());
+        Timer hold = meterRegistry.timer("account.lock.hold", "mode", "LOCAL");
+        assertEquals(1L, hold.count());
+        assertTrue(hold.totalTime(TimeUnit.MILLISECONDS) >= 20.0);
+    }
+
+    @Test
+    @DisplayName("다른 스레드가 락을 가지고 있으면 대기 시간 후 실패함")
+    void failGetLock() {
+        // given
+        lockService.lock("123", 1000L, -1L);
+
+        // when
+        AccountException exception = assertThrows(AccountException.class, () -> {
+            try {
+                CompletableFuture.runAsync(() -> lockService.lock("123", 50L, -1L)).join();
+            } catch (RuntimeException e) {
+                throw e.getCause();
+            }
+        });
+
+        // then
+        assertEquals(ErrorCode.ACCOUNT_TRANSACTION_LOCK, exception.getErrorCode());
+        assertEquals(1.0, meterRegistry.counter("account.lock.failures",
+                "reason", "local_timeout").count());
+    }
+}
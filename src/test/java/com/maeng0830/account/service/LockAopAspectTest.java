@@ -1,19 +1,36 @@
 package com.maeng0830.account.service;
 
+import com.maeng0830.account.aop.AccountLock;
+import com.maeng0830.account.aop.AccountLockContext;
 import com.maeng0830.account.dto.UseBalance;
 import com.maeng0830.account.exception.AccountException;
+import com.maeng0830.account.type.BalanceConcurrencyMode;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.UnexpectedRollbackException;
 
 import static com.maeng0830.account.type.ErrorCode.ACCOUNT_NOT_FOUND;
+import static com.maeng0830.account.type.ErrorCode.ACCOUNT_TRANSACTION_LOCK;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
@@ -22,9 +39,18 @@ class LockAopAspectTest {
     @Mock
     private LockService lockService;
 
+    @Mock
+    private HotAccountLedger hotAccountLedger;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
     @Mock
     private ProceedingJoinPoint proceedingJoinPoint;
 
+    @Mock
+    private AccountLock accountLock;
+
     @InjectMocks
     private LockAopAspect lockAopAspect;
 
@@ -39,12 +65,15 @@ class LockAopAspectTest {
         UseBalance.Request request =
                 new UseBalance.Request(123L, "1234", 1000L);
 
+        given(accountLock.tryLockTime()).willReturn(3000L);
+        given(accountLock.leaseTime()).willReturn(-1L);
+
         // when
-        lockAopAspect.aroundMethod(proceedingJoinPoint, request);
+        lockAopAspect.aroundMethod(proceedingJoinPoint, accountLock, request);
 
         // then
         verify(lockService, times(1))
-                .lock(lockArgumentCaptor.capture());
+                .lock(lockArgumentCaptor.capture(), eq(3000L), eq(-1L));
         verify(lockService, times(1))
                 .unlock(unlockArgumentCaptor.capture());
         assertEquals("1234", lockArgumentCaptor.getValue());
@@ -68,15 +97,121 @@ class LockAopAspectTest {
 
         // when
         assertThrows(AccountException.class, () ->
-                lockAopAspect.aroundMethod(proceedingJoinPoint, request));
+                lockAopAspect.aroundMethod(proceedingJoinPoint, accountLock, request));
 
         // then
         verify(lockService, times(1))
-                .lock(lockArgumentCaptor.capture());
+                .lock(lockArgumentCaptor.capture(), anyLong(), anyLong());
         verify(lockService, times(1))
                 .unlock(unlockArgumentCaptor.capture());
         assertEquals("54321", lockArgumentCaptor.getValue());
         assertEquals("54321", unlockArgumentCaptor.getValue());
 
     }
-}
\ No newline at end of file
+
+    @Test
+    void keepOriginalExceptionIfUnlockFails() throws Throwable {
+        // given
+        UseBalance.Request request =
+                new UseBalance.Request(123L, "54321", 1000L);
+
+        given(proceedingJoinPoint.proceed())
+                .willThrow(new AccountException(ACCOUNT_NOT_FOUND));
+        willThrow(new UnexpectedRollbackException("rollback-only"))
+                .given(lockService).unlock("54321");
+
+        // when
+        AccountException exception = assertThrows(AccountException.class, () ->
+                lockAopAspect.aroundMethod(proceedingJoinPoint, accountLock, request));
+
+        // then
+        assertEquals(ACCOUNT_NOT_FOUND, exception.getErrorCode());
+        assertEquals(UnexpectedRollbackException.class, exception.getSuppressed()[0].getClass());
+    }
+
+    @Test
+    void failIfUnlockFailsAfterSuccess() throws Throwable {
+        // given
+        UseBalance.Request request =
+                new UseBalance.Request(123L, "54321", 1000L);
+
+        willThrow(new UnexpectedRollbackException("rollback-only"))
+                .given(lockService).unlock("54321");
+
+        // when
+        // then
+        assertThrows(UnexpectedRollbackException.class, () ->
+                lockAopAspect.aroundMethod(proceedingJoinPoint, accountLock, request));
+    }
+
+    @Test
+    void exposeFencingTokenWhileLocked() throws Throwable {
+        // given
+        UseBalance.Request request =
+                new UseBalance.Request(123L, "1234", 1000L);
+
+        given(lockService.lock(anyString(), anyLong(), anyLong()))
+                .willReturn(42L);
+        given(proceedingJoinPoint.proceed())
+                .willAnswer(invocation -> AccountLockContext.getFencingToken());
+
+        // when
+        Object fencingToken =
+                lockAopAspect.aroundMethod(proceedingJoinPoint, accountLock, request);
+
+        // then
+        assertEquals(42L, fencingToken);
+        assertNull(AccountLockContext.getFencingToken());
+    }
+
+    @Test
+    void optimisticModeRetriesWithoutLock() throws Throwable {
+        // given
+        setOptimisticMode(3);
+        UseBalance.Request request =
+                new UseBalance.Request(123L, "1234", 1000L);
+
+        given(proceedingJoinPoint.proceed())
+                .willThrow(new ObjectOptimisticLockingFailureException("Account", 1L))
+                .willThrow(new ObjectOptimisticLockingFailureException("Account", 1L))
+                .willReturn("result");
+
+        // when
+        Object result = lockAopAspect.aroundMethod(proceedingJoinPoint, accountLock, request);
+
+        // then
+        assertEquals("result", result);
+        verify(proceedingJoinPoint, times(3)).proceed();
+        verify(lockService, never()).lock(anyString(), anyLong(), anyLong());
+        verify(lockService, never()).unlock(any());
+    }
+
+    @Test
+    void optimisticModeGivesUpAfterMaxAttempts() throws Throwable {
+        // given
+        setOptimisticMode(3);
+        UseBalance.Request request =
+                new UseBalance.Request(123L, "1234", 1000L);
+
+        given(proceedingJoinPoint.proceed())
+                .willThrow(new ObjectOptimisticLockingFailureException("Account", 1L));
+
+        // when
+        AccountException exception = assertThrows(AccountException.class, () ->
+                lockAopAspect.aroundMethod(proceedingJoinPoint, accountLock, request));
+
+        // then
+        assertEquals(ACCOUNT_TRANSACTION_LOCK, exception.getErrorCode());
+        verify(proceedingJoinPoint, times(3)).proceed();
+        assertEquals(2.0, meterRegistry.counter("account.lock.optimistic.retries").count());
+        assertEquals(1.0, meterRegistry.counter("account.lock.failures",
+                "reason", "optimistic_exhausted").count());
+    }
+
+    private void setOptimisticMode(int maxAttempts) {
+        ReflectionTestUtils.setField(lockAopAspect, "concurrencyMode",
+                BalanceConcurrencyMode.OPTIMISTIC);
+        ReflectionTestUtils.setField(lockAopAspect, "maxAttempts", maxAttempts);
+        ReflectionTestUtils.setField(lockAopAspect, "backoffMillis", 0L);
+    }
+}
@@ -0,0 +1,125 @@
+package com.maeng0830.account.service;
+
+import com.maeng0830.account.dto.ReconciliationReport;
+import com.maeng0830.account.repository.AccountRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class ReconciliationJobTest {
+    @Mock
+    private ReconciliationService reconciliationService;
+
+    @Mock
+    private AccountRepository accountRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private ReconciliationJob reconciliationJob;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        reconciliationJob = new ReconciliationJob(
+                reconciliationService, accountRepository, meterRegistry, 10L, 2, 100);
+    }
+
+    @Test
+    @DisplayName("계좌 id를 범위로 나눠서 정산하고, 재확인한 불일치만 보고")
+    @SuppressWarnings("unchecked")
+    void run() {
+        // given
+        given(accountRepository.countByInitialBalanceNotNull()).willReturn(25L);
+        given(accountRepository.findMinId()).willReturn(1L);
+        given(accountRepository.findMaxId()).willReturn(25L);
+        willAnswer(invocation -> {
+            AtomicLong checkedAccounts = invocation.getArgument(2);
+            Consumer<ReconciliationReport.Mismatch> mismatchConsumer = invocation.getArgument(3);
+            long fromId = invocation.getArgument(0);
+            long toId = invocation.getArgument(1);
+            checkedAccounts.addAndGet(toId - fromId + 1);
+            // 각 범위의 첫 계좌가 불일치
+            mismatchConsumer.accept(ReconciliationReport.Mismatch.builder()
+                    .accountId(fromId)
+                    .build());
+            return null;
+        }).given(reconciliationService).reconcileRange(anyLong(), anyLong(), any(), any());
+        // 11번 계좌는 재확인 시 일치
+        given(reconciliationService.recheck(any()))
+                .willAnswer(invocation -> {
+                    ReconciliationReport.Mismatch mismatch = invocation.getArgument(0);
+                    return mismatch.getAccountId() == 11L ? Optional.empty() : Optional.of(mismatch);
+                });
+
+        // when
+        ReconciliationReport report = reconciliationJob.run();
+
+        // then
+        verify(reconciliationService, times(1)).reconcileRange(eq(1L), eq(10L), any(), any());
+        verify(reconciliationService, times(1)).reconcileRange(eq(11L), eq(20L), any(), any());
+        verify(reconciliationService, times(1)).reconcileRange(eq(21L), eq(25L), any(), any());
+        assertEquals(25, report.getCheckedAccounts());
+        assertEquals(2, report.getMismatchedAccounts());
+        assertEquals(2, report.getMismatches().size());
+        assertEquals(1.0, meterRegistry.get("account.reconciliation.progress").gauge().value());
+        assertEquals(2.0, meterRegistry.get("account.reconciliation.mismatches").gauge().value());
+    }
+
+    @Test
+    @DisplayName("상세 내역 개수를 넘는 불일치도 모두 재확인해서 개수에 포함")
+    void recheckMismatchesBeyondReported() {
+        // given
+        reconciliationJob = new ReconciliationJob(
+                reconciliationService, accountRepository, meterRegistry, 10L, 1, 2);
+        given(accountRepository.countByInitialBalanceNotNull()).willReturn(10L);
+        given(accountRepository.findMinId()).willReturn(1L);
+        given(accountRepository.findMaxId()).willReturn(10L);
+        willAnswer(invocation -> {
+            AtomicLong checkedAccounts = invocation.getArgument(2);
+            Consumer<ReconciliationReport.Mismatch> mismatchConsumer = invocation.getArgument(3);
+            checkedAccounts.addAndGet(10);
+            // 모든 계좌가 불일치
+            for (long accountId = 1; accountId <= 10; accountId++) {
+                mismatchConsumer.accept(ReconciliationReport.Mismatch.builder()
+                        .accountId(accountId)
+                        .build());
+            }
+            return null;
+        }).given(reconciliationService).reconcileRange(anyLong(), anyLong(), any(), any());
+        // 짝수 계좌만 재확인 시에도 불일치
+        given(reconciliationService.recheck(any()))
+                .willAnswer(invocation -> {
+                    ReconciliationReport.Mismatch mismatch = invocation.getArgument(0);
+                    return mismatch.getAccountId() % 2 == 0 ? Optional.of(mismatch) : Optional.empty();
+                });
+
+        // when
+        ReconciliationReport report = reconciliationJob.run();
+
+        // then
+        verify(reconciliationService, times(10)).recheck(any());
+        assertEquals(5, report.getMismatchedAccounts());
+        assertEquals(2, report.getMismatches().size());
+        assertTrue(report.getMismatches().stream()
+                .allMatch(mismatch -> mismatch.getAccountId() % 2 == 0));
+    }
+}
@@ -0,0 +1,142 @@
+package com.maeng0830.account.service;
+
+import com.maeng0830.account.dto.ReconciliationAccount;
+import com.maeng0830.account.dto.ReconciliationEntry;
+import com.maeng0830.account.dto.ReconciliationReport;
+import com.maeng0830.account.repository.AccountRepository;
+import com.maeng0830.account.repository.TransactionRepository;
+import com.maeng0830.account.type.TransactionType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import static com.maeng0830.account.type.TransactionType.CANCEL;
+import static com.maeng0830.account.type.TransactionType.USE;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.BDDMockito.given;
+
+@ExtendWith(MockitoExtension.class)
+class ReconciliationServiceTest {
+    @Mock
+    private AccountRepository accountRepository;
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @InjectMocks
+    private ReconciliationService reconciliationService;
+
+    @Test
+    @DisplayName("계좌와 거래를 병합해서 잔액이 다른 계좌만 불일치로 보고")
+    void reconcileRange() {
+        // given
+        AtomicBoolean accountsClosed = new AtomicBoolean();
+        AtomicBoolean entriesClosed = new AtomicBoolean();
+        given(accountRepository.streamReconciliationAccounts(anyLong(), anyLong()))
+                .willReturn(Stream.of(
+                        account(1L, 10000L, 9000L),
+                        account(3L, 5000L, 5000L), // 거래가 없는 계좌
+                        account(4L, 10000L, 7000L)) // 8000원이어야 하는 계좌
+                        .onClose(() -> accountsClosed.set(true)));
+        given(transactionRepository.streamReconciliationEntries(anyLong(), anyLong()))
+                .willReturn(Stream.of(
+                        entry(1L, USE, 1500L),
+                        entry(1L, CANCEL, 500L),
+                        entry(2L, USE, 100L), // 초기 잔액이 없어서 제외된 계좌의 거래
+                        entry(4L, USE, 2000L))
+                        .onClose(() -> entriesClosed.set(true)));
+        AtomicLong checkedAccounts = new AtomicLong();
+        List<ReconciliationReport.Mismatch> mismatches = new ArrayList<>();
+
+        // when
+        reconciliationService.reconcileRange(1L, 4L, checkedAccounts, mismatches::add);
+
+        // then
+        assertEquals(3, checkedAccounts.get());
+        assertEquals(1, mismatches.size());
+        assertEquals(4L, mismatches.get(0).getAccountId());
+        assertEquals(8000L, mismatches.get(0).getExpectedBalance());
+        assertEquals(7000L, mismatches.get(0).getBalance());
+        assertTrue(accountsClosed.get());
+        assertTrue(entriesClosed.get());
+    }
+
+    @Test
+    @DisplayName("재확인 시 잔액이 맞으면 불일치에서 제외")
+    void recheckResolved() {
+        // given
+        given(accountRepository.findReconciliationBalance(anyLong()))
+                .willReturn(Optional.of(ReconciliationReport.Mismatch.builder()
+                        .accountId(4L)
+                        .expectedBalance(6000L)
+                        .balance(6000L)
+                        .build()));
+
+        // when
+        Optional<ReconciliationReport.Mismatch> mismatch = reconciliationService.recheck(
+                ReconciliationReport.Mismatch.builder()
+                        .accountId(4L)
+                        .expectedBalance(8000L)
+                        .balance(6000L)
+                        .build());
+
+        // then
+        assertFalse(mismatch.isPresent());
+    }
+
+    @Test
+    @DisplayName("재확인 시에도 잔액이 다르면 재확인한 값으로 불일치 보고")
+    void recheckConfirmed() {
+        // given
+        given(accountRepository.findReconciliationBalance(anyLong()))
+                .willReturn(Optional.of(ReconciliationReport.Mismatch.builder()
+                        .accountId(4L)
+                        .accountNumber("1000000004")
+                        .expectedBalance(7000L)
+                        .balance(6000L)
+                        .build()));
+
+        // when
+        Optional<ReconciliationReport.Mismatch> mismatch = reconciliationService.recheck(
+                ReconciliationReport.Mismatch.builder()
+                        .accountId(4L)
+                        .expectedBalance(8000L)
+                        .balance(6000L)
+                        .build());
+
+        // then
+        assertTrue(mismatch.isPresent());
+        assertEquals(7000L, mismatch.get().getExpectedBalance());
+        assertEquals(6000L, mismatch.get().getBalance());
+    }
+
+    private ReconciliationAccount account(Long id, Long initialBalance, Long balance) {
+        return ReconciliationAccount.builder()
+                .id(id)
+                .accountNumber("100000000" + id)
+                .initialBalance(initialBalance)
+                .balance(balance)
+                .build();
+    }
+
+    private ReconciliationEntry entry(Long accountId,
+                                      TransactionType transactionType,
+                                      Long amount) {
+        return ReconciliationEntry.builder()
+                .accountId(accountId)
+                .transactionType(transactionType)
+                .amount(amount)
+                .build();
+    }
+}
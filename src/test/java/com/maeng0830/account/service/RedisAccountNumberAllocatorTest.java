@@ -0,0 +1,156 @@
+package com.maeng0830.account.service;
+
+import com.maeng0830.account.exception.AccountException;
+import com.maeng0830.account.repository.AccountRepository;
+import com.maeng0830.account.type.ErrorCode;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.redisson.api.RAtomicLong;
+import org.redisson.api.RedissonClient;
+
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class RedisAccountNumberAllocatorTest {
+    private static final int THREADS = 64;
+    private static final int ACCOUNTS_PER_THREAD = 500;
+
+    @Mock
+    private RedissonClient redissonClient;
+
+    @Mock
+    private RAtomicLong sequence;
+
+    @Mock
+    private AccountRepository accountRepository;
+
+    @Test
+    void allocateFromReservedBlock() {
+        // given
+        AtomicLong redisValue = new AtomicLong();
+        given(redissonClient.getAtomicLong(anyString()))
+                .willReturn(sequence);
+        given(sequence.isExists())
+                .willReturn(true);
+        given(sequence.addAndGet(anyLong()))
+                .willAnswer(invocation -> redisValue.addAndGet(invocation.getArgument(0)));
+
+        RedisAccountNumberAllocator allocator =
+                new RedisAccountNumberAllocator(redissonClient, accountRepository, 1000L);
+
+        // when
+        String first = allocator.allocate();
+        String second = allocator.allocate();
+
+        // then
+        verify(sequence, times(1)).addAndGet(1000L);
+        assertEquals("1000000000", first);
+        assertEquals("1000000001", second);
+    }
+
+    @Test
+    @DisplayName("64개 스레드에서 동시에 발급해도 계좌 번호가 중복되지 않음")
+    void allocateConcurrently() throws InterruptedException {
+        // given
+        AtomicLong redisValue = new AtomicLong();
+        given(redissonClient.getAtomicLong(anyString()))
+                .willReturn(sequence);
+        given(sequence.isExists())
+                .willReturn(true);
+        given(sequence.addAndGet(anyLong()))
+                .willAnswer(invocation -> redisValue.addAndGet(invocation.getArgument(0)));
+
+        RedisAccountNumberAllocator allocator =
+                new RedisAccountNumberAllocator(redissonClient, accountRepository, 1000L);
+        Set<String> accountNumbers = ConcurrentHashMap.newKeySet();
+        ExecutorService executorService = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+
+        // when
+        for (int i = 0; i < THREADS; i++) {
+            executorService.submit(() -> {
+                start.await();
+                for (int j = 0; j < ACCOUNTS_PER_THREAD; j++) {
+                    accountNumbers.add(allocator.allocate());
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        executorService.shutdown();
+        assertTrue(executorService.awaitTermination(30, TimeUnit.SECONDS));
+
+        // then
+        assertEquals(THREADS * ACCOUNTS_PER_THREAD, accountNumbers.size());
+        assertTrue(accountNumbers.stream().allMatch(number -> number.length() == 10));
+        verify(sequence, times(THREADS * ACCOUNTS_PER_THREAD / 1000))
+                .addAndGet(1000L);
+    }
+
+    @Test
+    @DisplayName("Redis에 시퀀스가 없으면 DB의 가장 큰 계좌 번호 다음부터 발급함")
+    void seedSequenceFromDatabase() {
+        // given
+        AtomicLong redisValue = new AtomicLong();
+        given(redissonClient.getAtomicLong(anyString()))
+                .willReturn(sequence);
+        given(sequence.isExists())
+                .willReturn(false);
+        given(accountRepository.findMaxAccountNumber())
+                .willReturn(Optional.of("1000000041"));
+        given(sequence.compareAndSet(0L, 42L))
+                .willAnswer(invocation -> redisValue.compareAndSet(0L, 42L));
+        given(sequence.addAndGet(anyLong()))
+                .willAnswer(invocation -> redisValue.addAndGet(invocation.getArgument(0)));
+
+        RedisAccountNumberAllocator allocator =
+                new RedisAccountNumberAllocator(redissonClient, accountRepository, 1000L);
+
+        // when
+        String accountNumber = allocator.allocate();
+
+        // then
+        assertEquals("1000000042", accountNumber);
+    }
+
+    @Test
+    @DisplayName("9999999999 이후로는 발급하지 않음")
+    void failWhenAccountNumbersExhausted() {
+        // given
+        AtomicLong redisValue = new AtomicLong(8_999_999_999L);
+        given(redissonClient.getAtomicLong(anyString()))
+                .willReturn(sequence);
+        given(sequence.isExists())
+                .willReturn(true);
+        given(sequence.addAndGet(anyLong()))
+                .willAnswer(invocation -> redisValue.addAndGet(invocation.getArgument(0)));
+
+        RedisAccountNumberAllocator allocator =
+                new RedisAccountNumberAllocator(redissonClient, accountRepository, 1000L);
+
+        // when
+        String last = allocator.allocate();
+        AccountException exception = assertThrows(AccountException.class, allocator::allocate);
+
+        // then
+        assertEquals("9999999999", last);
+        assertEquals(ErrorCode.ACCOUNT_NUMBER_EXHAUSTED, exception.getErrorCode());
+    }
+}
@@ -0,0 +1,163 @@
+package com.maeng0830.account.service;
+
+import com.maeng0830.account.exception.AccountException;
+import com.maeng0830.account.type.ErrorCode;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.redisson.api.RAtomicLong;
+import org.redisson.api.RLock;
+import org.redisson.api.RedissonClient;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class RedissonLockServiceTest {
+    @Mock
+    private RedissonClient redissonClient;
+
+    @Mock
+    private RLock rLock;
+
+    @Mock
+    private RAtomicLong fencingTokenSequence;
+
+    @Spy
+    private StripedAccountLock stripedAccountLock = new StripedAccountLock(16);
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private RedissonLockService lockService;
+
+    @BeforeEach
+    void setUp() {
+        lockService = new RedissonLockService(redissonClient,
+                new LocalLockService(stripedAccountLock, meterRegistry), meterRegistry);
+    }
+
+    @Test
+    void successGetLock() throws InterruptedException {
+        // given
+        given(redissonClient.getLock(anyString()))
+                .willReturn(rLock);
+        given(rLock.tryLock(anyLong(), anyLong(), any()))
+                .willReturn(true);
+        given(redissonClient.getAtomicLong(anyString()))
+                .willReturn(fencingTokenSequence);
+        given(fencingTokenSequence.incrementAndGet())
+                .willReturn(7L);
+
+        // when
+        Long fencingToken = lockService.lock("123", 1000L, -1L);
+
+        // then
+        assertEquals(7L, fencingToken);
+        verify(rLock).tryLock(anyLong(), eq(-1L), eq(TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void failGetLock() throws InterruptedException {
+        // given
+        given(redissonClient.getLock(anyString()))
+                .willReturn(rLock);
+        given(rLock.tryLock(anyLong(), anyLong(), any()))
+                .willReturn(false);
+
+        // when
+        AccountException exception
+                = assertThrows(AccountException.class, () -> lockService.lock("123", 1000L, -1L));
+
+        // then
+        assertEquals(ErrorCode.ACCOUNT_TRANSACTION_LOCK, exception.getErrorCode());
+        verify(stripedAccountLock).unlock("123");
+        assertEquals(1.0, meterRegistry.counter("account.lock.failures",
+                "reason", "distributed_timeout").count());
+        assertEquals(1L, meterRegistry.timer("account.lock.wait",
+                "mode", "HYBRID", "result", "failed").count());
+    }
+
+    @Test
+    @DisplayName("DISTRIBUTED 모드에서는 JVM 내부 락을 사용하지 않음")
+    void distributedModeSkipsLocalLock() throws InterruptedException {
+        // given
+        lockService = new RedissonLockService(redissonClient, null, meterRegistry);
+        given(redissonClient.getLock(anyString()))
+                .willReturn(rLock);
+        given(rLock.tryLock(anyLong(), anyLong(), any()))
+                .willReturn(true);
+        given(redissonClient.getAtomicLong(anyString()))
+                .willReturn(fencingTokenSequence);
+
+        // when
+        lockService.lock("123", 1000L, -1L);
+        lockService.unlock("123");
+
+        // then
+        verify(rLock).unlock();
+        verify(stripedAccountLock, never()).tryLock(anyString(), anyLong(), any());
+        assertEquals(1L, meterRegistry.timer("account.lock.hold", "mode", "DISTRIBUTED").count());
+    }
+
+    @Test
+    @DisplayName("HYBRID 모드에서는 계좌 당 하나의 스레드만 Redis 락을 시도함")
+    void hybridModeSerializesRedisCalls() throws InterruptedException {
+        // given
+        AtomicInteger inRedis = new AtomicInteger();
+        AtomicInteger maxInRedis = new AtomicInteger();
+        AtomicInteger redisCalls = new AtomicInteger();
+        given(redissonClient.getLock(anyString()))
+                .willReturn(rLock);
+        given(rLock.tryLock(anyLong(), anyLong(), any()))
+                .willAnswer(invocation -> {
+                    redisCalls.incrementAndGet();
+                    maxInRedis.accumulateAndGet(inRedis.incrementAndGet(), Math::max);
+                    return true;
+                });
+        willAnswer(invocation -> inRedis.decrementAndGet())
+                .given(rLock).unlock();
+        given(redissonClient.getAtomicLong(anyString()))
+                .willReturn(fencingTokenSequence);
+
+        int threads = 16;
+        int iterations = 50;
+        ExecutorService executorService = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+
+        // when
+        for (int i = 0; i < threads; i++) {
+            executorService.submit(() -> {
+                start.await();
+                for (int j = 0; j < iterations; j++) {
+                    lockService.lock("1000000000", 1000L, -1L);
+                    lockService.unlock("1000000000");
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        executorService.shutdown();
+        assertTrue(executorService.awaitTermination(30, TimeUnit.SECONDS));
+
+        // then
+        assertEquals(threads * iterations, redisCalls.get());
+        assertEquals(1, maxInRedis.get());
+    }
+}
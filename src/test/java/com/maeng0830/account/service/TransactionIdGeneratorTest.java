@@ -0,0 +1,86 @@
+package com.maeng0830.account.service;
+
+import com.maeng0830.account.domain.TransactionIdCodec;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransactionIdGeneratorTest {
+    private static final int THREADS = 16;
+    private static final int IDS_PER_THREAD = 10000;
+
+    @Test
+    void nextIdIsIncreasing() {
+        // given
+        TransactionIdGenerator generator = new TransactionIdGenerator(5L);
+
+        // when
+        long previous = generator.nextLong();
+        for (int i = 0; i < 100000; i++) {
+            long next = generator.nextLong();
+
+            // then
+            assertTrue(next > previous);
+            assertEquals(5L, (next >>> TransactionIdGenerator.SEQUENCE_BITS)
+                    & TransactionIdGenerator.MAX_NODE_ID);
+            previous = next;
+        }
+    }
+
+    @Test
+    @DisplayName("여러 스레드에서 동시에 발급해도 거래 id가 중복되지 않음")
+    void nextIdConcurrently() throws InterruptedException {
+        // given
+        TransactionIdGenerator generator = new TransactionIdGenerator(0L);
+        Set<String> ids = ConcurrentHashMap.newKeySet();
+        ExecutorService executorService = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+
+        // when
+        for (int i = 0; i < THREADS; i++) {
+            executorService.submit(() -> {
+                start.await();
+                for (int j = 0; j < IDS_PER_THREAD; j++) {
+                    ids.add(generator.nextId());
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        executorService.shutdown();
+        assertTrue(executorService.awaitTermination(30, TimeUnit.SECONDS));
+
+        // then
+        assertEquals(THREADS * IDS_PER_THREAD, ids.size());
+        assertTrue(ids.stream().allMatch(id -> id.length() == TransactionIdCodec.LENGTH));
+    }
+
+    @Test
+    void invalidNodeId() {
+        assertThrows(IllegalArgumentException.class, () -> new TransactionIdGenerator(1024L));
+    }
+
+    @Test
+    void encodeAndDecode() {
+        // given
+        long id = new TransactionIdGenerator(1L).nextLong();
+
+        // when
+        String encoded = TransactionIdCodec.encode(id);
+
+        // then
+        assertEquals(id, TransactionIdCodec.decode(encoded));
+        assertEquals("00000000000000ff", TransactionIdCodec.encode(255L));
+        assertEquals(TransactionIdCodec.INVALID, TransactionIdCodec.decode("transactionId"));
+        assertEquals(TransactionIdCodec.INVALID, TransactionIdCodec.decode("zzzzzzzzzzzzzzzz"));
+        assertEquals(TransactionIdCodec.INVALID, TransactionIdCodec.decode("ffffffffffffffff"));
+    }
+}
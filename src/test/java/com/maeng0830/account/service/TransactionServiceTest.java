@@ -1,24 +1,36 @@
 package com.maeng0830.account.service;
 
+import com.maeng0830.account.aop.AccountLockContext;
 import com.maeng0830.account.domain.Account;
 import com.maeng0830.account.domain.AccountUser;
 import com.maeng0830.account.domain.Transaction;
+import com.maeng0830.account.dto.FailedTransaction;
+import com.maeng0830.account.dto.LedgerBatch;
 import com.maeng0830.account.dto.TransactionDto;
+import com.maeng0830.account.dto.TransactionHistory;
+import com.maeng0830.account.dto.UseBalance;
 import com.maeng0830.account.exception.AccountException;
 import com.maeng0830.account.repository.AccountRepository;
 import com.maeng0830.account.repository.AccountUserRepository;
 import com.maeng0830.account.repository.TransactionRepository;
 import com.maeng0830.account.type.AccountStatus;
+import com.maeng0830.account.type.BalanceConcurrencyMode;
 import com.maeng0830.account.type.ErrorCode;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
 
 import static com.maeng0830.account.type.AccountStatus.IN_USE;
@@ -28,9 +40,12 @@ import static com.maeng0830.account.type.TransactionResultType.S;
 import static com.maeng0830.account.type.TransactionType.CANCEL;
 import static com.maeng0830.account.type.TransactionType.USE;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
@@ -44,9 +59,21 @@ class TransactionServiceTest {
     @Mock
     private AccountRepository accountRepository;
 
+    @Mock
+    private AccountCache accountCache;
+
+    @Mock
+    private TransactionCache transactionCache;
+
+    @Mock
+    private TransactionIdGenerator transactionIdGenerator;
+
     @Mock
     private AccountUserRepository accountUserRepository;
 
+    @Captor
+    private ArgumentCaptor<List<Transaction>> transactionsCaptor;
+
     @InjectMocks
     private TransactionService transactionService;
 
@@ -57,15 +84,12 @@ class TransactionServiceTest {
                 .id(12L)
                 .name("Pobi").build();
 
-        given(accountUserRepository.findById(anyLong()))
-                .willReturn(Optional.of(user));
-
         Account account = Account.builder()
                 .accountUser(user)
                 .accountStatus(IN_USE)
                 .balance(10000L)
                 .accountNumber("1000000012").build();
-        given(accountRepository.findByAccountNumber(anyString()))
+        given(accountRepository.findByAccountNumberAndAccountUser_Id(anyString(), anyLong()))
                 .willReturn(Optional.of(account));
 
         given(transactionRepository.save(any()))
@@ -86,6 +110,7 @@ class TransactionServiceTest {
                 1L, "1000000000", USE_AMOUNT);
 
         // then
+        verify(accountUserRepository, never()).findById(anyLong());
         verify(transactionRepository, times(1)).save(captor.capture());
         assertEquals(USE_AMOUNT, captor.getValue().getAmount());
         assertEquals(9800L, captor.getValue().getBalanceSnapshot());
@@ -93,18 +118,148 @@ class TransactionServiceTest {
         assertEquals(USE, transactionDto.getTransactionType());
         assertEquals(9000L, transactionDto.getBalanceSnapshot());
         assertEquals(1000L, transactionDto.getAmount());
+        verify(accountCache, times(1)).evictAccountsByUser(12L);
     }
 
     @Test
-    @DisplayName("해당 유저 없음 - 잔액 사용 실패")
-    void useBalance_UserNotFound() {
+    @DisplayName("일괄 잔액 사용 - 계좌는 한 번만 조회하고 거래 기록은 한 번에 저장")
+    void successUseBalanceBatch() {
         // given
         AccountUser user = AccountUser.builder()
-                .id(15L)
+                .id(12L)
                 .name("Pobi").build();
 
         given(accountUserRepository.findById(anyLong()))
+                .willReturn(Optional.of(user));
+
+        Account account = Account.builder()
+                .accountUser(user)
+                .accountStatus(IN_USE)
+                .balance(10000L)
+                .accountNumber("1000000012").build();
+        given(accountRepository.findByAccountNumber(anyString()))
+                .willReturn(Optional.of(account));
+
+        given(transactionRepository.saveAll(any()))
+                .willAnswer(invocation -> invocation.getArgument(0));
+
+        // when
+        List<TransactionDto> transactionDtos = transactionService.useBalanceBatch(Arrays.asList(
+                new UseBalance.Request(12L, "1000000012", 1000L),
+                new UseBalance.Request(12L, "1000000012", 2000L)));
+
+        // then
+        verify(accountRepository, times(1)).findByAccountNumber(anyString());
+        verify(transactionRepository, times(1)).saveAll(any());
+        verify(transactionRepository, never()).save(any());
+        assertEquals(2, transactionDtos.size());
+        assertEquals(9000L, transactionDtos.get(0).getBalanceSnapshot());
+        assertEquals(7000L, transactionDtos.get(1).getBalanceSnapshot());
+        assertEquals(7000L, account.getBalance());
+    }
+
+    @Test
+    @DisplayName("핫 계좌 일괄 처리 - 실패한 요청만 제외하고 계좌 변경과 거래 기록은 한 번에 저장")
+    void applyLedgerBatch() {
+        // given
+        AccountUser user = AccountUser.builder()
+                .id(12L)
+                .name("Pobi").build();
+
+        Account account = Account.builder()
+                .accountUser(user)
+                .accountStatus(IN_USE)
+                .balance(10000L)
+                .accountNumber("1000000012").build();
+        given(accountRepository.findByAccountNumber(anyString()))
+                .willReturn(Optional.of(account));
+        given(transactionCache.get(anyString()))
+                .willReturn(Optional.of(TransactionDto.builder()
+                        .accountNumber("1000000012")
+                        .transactionType(USE)
+                        .transactionResultType(S)
+                        .transactionId("0000000000000001")
+                        .amount(CANCEL_AMOUNT)
+                        .build()));
+
+        List<LedgerBatch.Command> commands = Arrays.asList(
+                new LedgerBatch.Command(USE, 12L, null, 6000L),
+                new LedgerBatch.Command(USE, 12L, null, 6000L),
+                new LedgerBatch.Command(CANCEL, null, "0000000000000001", CANCEL_AMOUNT),
+                new LedgerBatch.Command(USE, 12L, null, 4200L));
+
+        // when
+        List<LedgerBatch.Result> results = transactionService.applyLedgerBatch("1000000012", commands);
+
+        // then
+        verify(accountRepository, times(1)).findByAccountNumber(anyString());
+        verify(transactionRepository, times(1)).saveAll(any());
+        verify(transactionRepository, never()).save(any());
+        assertEquals(4000L, results.get(0).getTransaction().getBalanceSnapshot());
+        assertEquals(AMOUNT_EXCEED_BALANCE, results.get(1).getError().getErrorCode());
+        assertEquals(4200L, results.get(2).getTransaction().getBalanceSnapshot());
+        assertEquals(0L, results.get(3).getTransaction().getBalanceSnapshot());
+        assertEquals(0L, account.getBalance());
+    }
+
+    @Test
+    @DisplayName("만료된 락의 fencing token - 잔액 사용 실패")
+    void useBalance_StaleLockToken() {
+        // given
+        given(accountRepository.updateFencingTokenIfNotStale("1000000012", 4L))
+                .willReturn(0);
+        given(accountRepository.existsByAccountNumber("1000000012"))
+                .willReturn(true);
+
+        AccountLockContext.setFencingToken(4L);
+
+        // when
+        AccountException exception;
+        try {
+            exception = assertThrows(AccountException.class,
+                    () -> transactionService.useBalance(1L, "1000000012", USE_AMOUNT));
+        } finally {
+            AccountLockContext.clear();
+        }
+
+        // then
+        assertEquals(STALE_LOCK_TOKEN, exception.getErrorCode());
+        verify(accountRepository, never()).findByAccountNumberAndAccountUser_Id(anyString(), anyLong());
+    }
+
+    @Test
+    @DisplayName("만료된 락의 fencing token - 잔액 사용 취소 실패")
+    void cancelBalance_StaleLockToken() {
+        // given
+        given(accountRepository.updateFencingTokenIfNotStale("1000000012", 4L))
+                .willReturn(0);
+        given(accountRepository.existsByAccountNumber("1000000012"))
+                .willReturn(true);
+
+        AccountLockContext.setFencingToken(4L);
+
+        // when
+        AccountException exception;
+        try {
+            exception = assertThrows(AccountException.class,
+                    () -> transactionService.cancelBalance("transactionId", "1000000012", CANCEL_AMOUNT));
+        } finally {
+            AccountLockContext.clear();
+        }
+
+        // then
+        assertEquals(STALE_LOCK_TOKEN, exception.getErrorCode());
+        verify(accountRepository, never()).findByAccountNumber(anyString());
+    }
+
+    @Test
+    @DisplayName("해당 유저 없음 - 잔액 사용 실패")
+    void useBalance_UserNotFound() {
+        // given
+        given(accountRepository.findByAccountNumberAndAccountUser_Id(anyString(), anyLong()))
                 .willReturn(Optional.empty());
+        given(accountUserRepository.existsById(anyLong()))
+                .willReturn(false);
 
         // when
         AccountException exception = assertThrows(AccountException.class,
@@ -118,15 +273,12 @@ class TransactionServiceTest {
     @DisplayName("해당 계좌 없음 - 잔액 사용 실패")
     void deleteAccountFailed_AccountNotFound() {
         // given
-        AccountUser user = AccountUser.builder()
-                .id(12L)
-                .name("Pobi").build();
-
-        given(accountUserRepository.findById(anyLong()))
-                .willReturn(Optional.of(user));
-
-        given(accountRepository.findByAccountNumber(anyString()))
+        given(accountRepository.findByAccountNumberAndAccountUser_Id(anyString(), anyLong()))
                 .willReturn(Optional.empty());
+        given(accountUserRepository.existsById(anyLong()))
+                .willReturn(true);
+        given(accountRepository.existsByAccountNumber(anyString()))
+                .willReturn(false);
 
 
         // when
@@ -141,22 +293,12 @@ class TransactionServiceTest {
     @DisplayName("계좌 소유주 다름 - 잔액 사용 실패")
     void deleteAccountFailed_userUnMatch() {
         // given
-        AccountUser pobi = AccountUser.builder()
-                .id(12L)
-                .name("Pobi").build();
-
-        AccountUser harry = AccountUser.builder()
-                .id(13L)
-                .name("Harry").build();
-
-        given(accountUserRepository.findById(anyLong()))
-                .willReturn(Optional.of(pobi));
-
-        given(accountRepository.findByAccountNumber(anyString()))
-                .willReturn(Optional.of(Account.builder()
-                        .accountUser(harry)
-                        .balance(0L)
-                        .accountNumber("1000000012").build()));
+        given(accountRepository.findByAccountNumberAndAccountUser_Id(anyString(), anyLong()))
+                .willReturn(Optional.empty());
+        given(accountUserRepository.existsById(anyLong()))
+                .willReturn(true);
+        given(accountRepository.existsByAccountNumber(anyString()))
+                .willReturn(true);
 
         // when
         AccountException exception = assertThrows(AccountException.class,
@@ -174,10 +316,7 @@ class TransactionServiceTest {
                 .id(12L)
                 .name("Pobi").build();
 
-        given(accountUserRepository.findById(anyLong()))
-                .willReturn(Optional.of(pobi));
-
-        given(accountRepository.findByAccountNumber(anyString()))
+        given(accountRepository.findByAccountNumberAndAccountUser_Id(anyString(), anyLong()))
                 .willReturn(Optional.of(Account.builder()
                         .accountUser(pobi)
                         .accountStatus(AccountStatus.UNREGISTERED)
@@ -200,15 +339,12 @@ class TransactionServiceTest {
                 .id(12L)
                 .name("Pobi").build();
 
-        given(accountUserRepository.findById(anyLong()))
-                .willReturn(Optional.of(user));
-
         Account account = Account.builder()
                 .accountUser(user)
                 .accountStatus(IN_USE)
                 .balance(100L)
                 .accountNumber("1000000012").build();
-        given(accountRepository.findByAccountNumber(anyString()))
+        given(accountRepository.findByAccountNumberAndAccountUser_Id(anyString(), anyLong()))
                 .willReturn(Optional.of(account));
 
         // when
@@ -217,13 +353,14 @@ class TransactionServiceTest {
 
         // then
         assertEquals(AMOUNT_EXCEED_BALANCE, exception.getErrorCode());
+        assertEquals(100L, exception.getBalanceSnapshot());
         verify(transactionRepository, times(0)).save(any());
 
     }
 
     @Test
-    @DisplayName("실패 트랜잭션 저장 성공")
-    void saveFailedUseTransaction() {
+    @DisplayName("실패 트랜잭션 일괄 저장 성공")
+    void saveFailedTransactions() {
         // given
         AccountUser user = AccountUser.builder()
                 .id(12L)
@@ -235,31 +372,34 @@ class TransactionServiceTest {
                 .balance(10000L)
                 .accountNumber("1000000012").build();
 
-        given(accountRepository.findByAccountNumber(anyString()))
-                .willReturn(Optional.of(account));
+        given(accountRepository.findByAccountNumberIn(anyCollection()))
+                .willReturn(Collections.singletonList(account));
 
-        given(transactionRepository.save(any()))
-                .willReturn(Transaction.builder()
-                        .account(account)
-                        .transactionType(USE)
-                        .transactionResultType(S)
-                        .transactionId("transactionId")
-                        .transactedAt(LocalDateTime.now())
-                        .amount(1000L)
-                        .balanceSnapshot(9000L)
-                        .build());
-
-        ArgumentCaptor<Transaction> captor = ArgumentCaptor.forClass(Transaction.class);
+        LocalDateTime failedAt = LocalDateTime.of(2022, 9, 1, 12, 0);
+        List<FailedTransaction> failedTransactions = Arrays.asList(
+                new FailedTransaction(USE, "1000000012", USE_AMOUNT, 9000L, failedAt),
+                new FailedTransaction(CANCEL, "1000000012", CANCEL_AMOUNT, 8000L, failedAt),
+                new FailedTransaction(USE, "1000000012", USE_AMOUNT, null, failedAt),
+                new FailedTransaction(USE, "9999999999", USE_AMOUNT, 7000L, failedAt));
 
         // when
-        transactionService.saveFailedUseTransaction("1000000000", USE_AMOUNT);
+        transactionService.saveFailedTransactions(failedTransactions);
 
         // then
-        verify(transactionRepository, times(1)).save(captor.capture());
-        assertEquals(USE_AMOUNT, captor.getValue().getAmount());
-        assertEquals(10000L, captor.getValue().getBalanceSnapshot());
-        assertEquals(F, captor.getValue().getTransactionResultType());
-
+        verify(accountRepository, times(1)).findByAccountNumberIn(anyCollection());
+        verify(transactionRepository, times(1)).saveAll(transactionsCaptor.capture());
+        List<Transaction> saved = transactionsCaptor.getValue();
+        assertEquals(3, saved.size());
+        assertEquals(USE, saved.get(0).getTransactionType());
+        assertEquals(CANCEL, saved.get(1).getTransactionType());
+        // 저장 시점의 잔액(10000)이 아니라 실패한 시점에 기록한 잔액을 사용한다.
+        assertEquals(9000L, saved.get(0).getBalanceSnapshot());
+        assertEquals(8000L, saved.get(1).getBalanceSnapshot());
+        // 실패한 시점의 잔액을 모르면 저장 시점의 잔액을 사용한다.
+        assertEquals(10000L, saved.get(2).getBalanceSnapshot());
+        assertTrue(saved.stream().allMatch(transaction ->
+                transaction.getTransactionResultType() == F
+                        && failedAt.equals(transaction.getTransactedAt())));
     }
 
     @Test
@@ -323,7 +463,10 @@ class TransactionServiceTest {
     void cancelTransaction_AccountNotFound() {
         // given
         given(transactionRepository.findByTransactionId(anyString()))
-                .willReturn(Optional.of(Transaction.builder().build()));
+                .willReturn(Optional.of(Transaction.builder()
+                        .account(Account.builder()
+                                .accountNumber("1000000012").build())
+                        .build()));
 
         given(accountRepository.findByAccountNumber(anyString()))
                 .willReturn(Optional.empty());
@@ -481,6 +624,29 @@ class TransactionServiceTest {
         assertEquals(S, transactionDto.getTransactionResultType());
         assertEquals(CANCEL_AMOUNT, transactionDto.getAmount());
         assertEquals("transactionId", transactionDto.getTransactionId());
+        verify(transactionCache, times(1)).put(any());
+    }
+
+    @Test
+    @DisplayName("캐시된 거래는 DB를 조회하지 않음")
+    void queryTransaction_CacheHit() {
+        // given
+        given(transactionCache.get(anyString()))
+                .willReturn(Optional.of(TransactionDto.builder()
+                        .accountNumber("1000000012")
+                        .transactionType(USE)
+                        .transactionResultType(S)
+                        .transactionId("transactionId")
+                        .amount(CANCEL_AMOUNT)
+                        .build()));
+
+        // when
+        TransactionDto transactionDto = transactionService.queryTransaction("transactionId");
+
+        // then
+        verify(transactionRepository, never()).findByTransactionId(anyString());
+        assertEquals("transactionId", transactionDto.getTransactionId());
+        assertEquals(CANCEL_AMOUNT, transactionDto.getAmount());
     }
 
     @Test
@@ -497,4 +663,172 @@ class TransactionServiceTest {
         // then
         assertEquals(TRANSACTION_NOT_FOUND, exception.getErrorCode());
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("조건부 UPDATE - 잔액 사용 성공")
+    void successUseBalance_ConditionalUpdate() {
+        // given
+        ReflectionTestUtils.setField(transactionService, "concurrencyMode",
+                BalanceConcurrencyMode.CONDITIONAL_UPDATE);
+        AccountUser user = AccountUser.builder()
+                .id(12L)
+                .name("Pobi").build();
+
+        Account account = Account.builder()
+                .accountUser(user)
+                .accountStatus(IN_USE)
+                .balance(9800L)
+                .accountNumber("1000000012").build();
+
+        given(accountRepository.decreaseBalanceIfEnough(anyString(), anyLong()))
+                .willReturn(1);
+        given(accountRepository.findByAccountNumberAndAccountUser_Id(anyString(), anyLong()))
+                .willReturn(Optional.of(account));
+        given(transactionRepository.save(any()))
+                .willAnswer(invocation -> invocation.getArgument(0));
+
+        // when
+        TransactionDto transactionDto = transactionService.useBalance(
+                12L, "1000000012", USE_AMOUNT);
+
+        // then
+        verify(accountUserRepository, never()).findById(anyLong());
+        assertEquals(S, transactionDto.getTransactionResultType());
+        assertEquals(USE_AMOUNT, transactionDto.getAmount());
+        assertEquals(9800L, transactionDto.getBalanceSnapshot());
+    }
+
+    @Test
+    @DisplayName("조건부 UPDATE - 거래 금액이 잔액보다 큰 경우")
+    void exceedAmount_UseBalance_ConditionalUpdate() {
+        // given
+        ReflectionTestUtils.setField(transactionService, "concurrencyMode",
+                BalanceConcurrencyMode.CONDITIONAL_UPDATE);
+        AccountUser user = AccountUser.builder()
+                .id(12L)
+                .name("Pobi").build();
+
+        given(accountRepository.decreaseBalanceIfEnough(anyString(), anyLong()))
+                .willReturn(0);
+        given(accountRepository.findByAccountNumberAndAccountUser_Id(anyString(), anyLong()))
+                .willReturn(Optional.of(Account.builder()
+                        .accountUser(user)
+                        .accountStatus(IN_USE)
+                        .balance(100L)
+                        .accountNumber("1000000012").build()));
+
+        // when
+        AccountException exception = assertThrows(AccountException.class,
+                () -> transactionService.useBalance(12L, "1000000012", USE_AMOUNT));
+
+        // then
+        assertEquals(AMOUNT_EXCEED_BALANCE, exception.getErrorCode());
+        verify(transactionRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("조건부 UPDATE - 사용자와 계좌 불일치")
+    void userUnMatch_UseBalance_ConditionalUpdate() {
+        // given
+        ReflectionTestUtils.setField(transactionService, "concurrencyMode",
+                BalanceConcurrencyMode.CONDITIONAL_UPDATE);
+        given(accountRepository.decreaseBalanceIfEnough(anyString(), anyLong()))
+                .willReturn(1);
+        given(accountRepository.findByAccountNumberAndAccountUser_Id(anyString(), anyLong()))
+                .willReturn(Optional.empty());
+        given(accountUserRepository.existsById(anyLong()))
+                .willReturn(true);
+        given(accountRepository.existsByAccountNumber(anyString()))
+                .willReturn(true);
+
+        // when
+        AccountException exception = assertThrows(AccountException.class,
+                () -> transactionService.useBalance(12L, "1000000012", USE_AMOUNT));
+
+        // then
+        assertEquals(USER_ACCOUNT_UN_MATCH, exception.getErrorCode());
+        verify(transactionRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("거래 내역 - 페이지가 가득 차면 마지막 거래의 (거래 일시, id)를 다음 커서로 반환")
+    void successGetTransactionHistory() {
+        // given
+        LocalDateTime transactedAt = LocalDateTime.of(2022, 10, 1, 12, 0);
+        given(accountRepository.findIdByAccountNumber(anyString()))
+                .willReturn(Optional.of(7L));
+        given(transactionRepository.findHistory(anyLong(), any(), anyLong(), any(Pageable.class)))
+                .willReturn(Arrays.asList(
+                        TransactionHistory.builder().id(31L).transactedAt(transactedAt.plusMinutes(1)).build(),
+                        TransactionHistory.builder().id(30L).transactedAt(transactedAt).build()));
+
+        // when
+        TransactionHistory.Page page = transactionService.getTransactionHistory(
+                "1000000000", "2022-10-01T12:05_40", null, null, 2);
+
+        // then
+        verify(transactionRepository, times(1)).findHistory(eq(7L),
+                eq(LocalDateTime.of(2022, 10, 1, 12, 5)), eq(40L), any(Pageable.class));
+        assertEquals(2, page.getTransactions().size());
+        assertEquals("2022-10-01T12:00_30", page.getNextCursor());
+    }
+
+    @Test
+    @DisplayName("거래 내역 - 마지막 페이지이면 다음 커서가 없음")
+    void lastPage_GetTransactionHistory() {
+        // given
+        given(accountRepository.findIdByAccountNumber(anyString()))
+                .willReturn(Optional.of(7L));
+        given(transactionRepository.findHistory(anyLong(), any(), anyLong(), any(Pageable.class)))
+                .willReturn(Collections.singletonList(
+                        TransactionHistory.builder().id(30L).transactedAt(LocalDateTime.now()).build()));
+
+        // when
+        TransactionHistory.Page page = transactionService.getTransactionHistory(
+                "1000000000", null, null, null, 20);
+
+        // then
+        verify(transactionRepository, times(1)).findHistory(eq(7L),
+                any(), eq(Long.MIN_VALUE), any(Pageable.class));
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    @DisplayName("거래 내역 - 조회 기간의 시작이 있으면 시작을 탐색 범위로 사용하는 쿼리로 조회")
+    void from_GetTransactionHistory() {
+        // given
+        LocalDateTime from = LocalDateTime.of(2022, 10, 1, 0, 0);
+        LocalDateTime to = LocalDateTime.of(2022, 10, 2, 0, 0);
+        given(accountRepository.findIdByAccountNumber(anyString()))
+                .willReturn(Optional.of(7L));
+        given(transactionRepository.findHistorySince(anyLong(), any(), anyLong(), any(), any(Pageable.class)))
+                .willReturn(Collections.singletonList(
+                        TransactionHistory.builder().id(30L).transactedAt(from.plusHours(1)).build()));
+
+        // when
+        TransactionHistory.Page page = transactionService.getTransactionHistory(
+                "1000000000", null, from, to, 20);
+
+        // then
+        verify(transactionRepository, times(1)).findHistorySince(eq(7L),
+                eq(to), eq(Long.MIN_VALUE), eq(from), any(Pageable.class));
+        verify(transactionRepository, never()).findHistory(anyLong(), any(), anyLong(), any(Pageable.class));
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    @DisplayName("거래 내역 - 커서 형식이 잘못된 경우")
+    void invalidCursor_GetTransactionHistory() {
+        // given
+        given(accountRepository.findIdByAccountNumber(anyString()))
+                .willReturn(Optional.of(7L));
+
+        // when
+        AccountException exception = assertThrows(AccountException.class,
+                () -> transactionService.getTransactionHistory("1000000000", "cursor", null, null, 20));
+
+        // then
+        assertEquals(INVALID_REQUEST, exception.getErrorCode());
+        verify(transactionRepository, never()).findHistory(anyLong(), any(), anyLong(), any());
+    }
+}